@@ -0,0 +1,79 @@
+package com.netease.cloud.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+
+/**
+ * Synthetic but realistically shaped data shared by the benchmarks: get_logs pages of access log
+ * lines, generated from a fixed seed so that every run measures the same bytes.
+ */
+public final class BenchmarkData {
+
+    public static final String ACCESS_KEY = "benchmark-access-key";
+    public static final String SECRET_KEY = "benchmark-secret-key-0123456789abcdef";
+    public static final String SUBSCRIPTION = "benchmark-subscription";
+    public static final String POSITION = "c3RyZWFtcHJveHk6MTIzNDU2Nzg5MDoxMjM0";
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private static final String[] PATHS = {"/api/v1/orders", "/api/v1/users/me", "/static/app.js",
+            "/api/v2/search?q=stream+proxy&page=3", "/healthz", "/api/v1/logs/subscriptions"};
+    private static final String[] AGENTS = {
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 Chrome/120.0"
+                    + " Safari/537.36",
+            "curl/8.4.0", "okhttp/4.12.0", "Apache-HttpClient/4.5.14 (Java/17.0.9)"};
+
+    private BenchmarkData() {}
+
+    /**
+     * Returns a get_logs response body holding the specified number of logs.
+     * 
+     * @param logs The number of logs of the page.
+     * @return The UTF-8 response body.
+     */
+    public static byte[] getLogsPage(int logs) {
+        Random random = new Random(logs);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(logs * 320 + 128);
+            JsonGenerator generator = jsonFactory.createJsonGenerator(out, JsonEncoding.UTF8);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("subscription_logs");
+            for (int i = 0; i < logs; i++) {
+                generator.writeString(logLine(random, i));
+            }
+            generator.writeEndArray();
+            generator.writeStringField("position", POSITION + logs);
+            generator.writeEndObject();
+            generator.close();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns one access log line, as a JSON document like the ones produced by log shippers.
+     */
+    static String logLine(Random random, int sequence) {
+        StringBuilder line = new StringBuilder(320);
+        line.append("{\"@timestamp\":\"2016-12-14T08:").append(10 + random.nextInt(50))
+                .append(':').append(10 + random.nextInt(50)).append('.')
+                .append(100 + random.nextInt(900)).append("Z\",\"host\":\"web-")
+                .append(random.nextInt(64)).append(".hz.163.org\",\"remote_addr\":\"10.")
+                .append(random.nextInt(256)).append('.').append(random.nextInt(256)).append('.')
+                .append(random.nextInt(256)).append("\",\"request\":\"GET ")
+                .append(PATHS[random.nextInt(PATHS.length)]).append(" HTTP/1.1\",\"status\":")
+                .append(random.nextInt(10) == 0 ? 500 : 200).append(",\"bytes\":")
+                .append(random.nextInt(100000)).append(",\"request_time\":0.")
+                .append(random.nextInt(1000)).append(",\"user_agent\":\"")
+                .append(AGENTS[random.nextInt(AGENTS.length)]).append("\",\"seq\":")
+                .append(sequence).append('}');
+        return line.toString();
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.netease.cloud.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.netease.cloud.model.LogRecordListener;
+import com.netease.cloud.model.transform.SubscriptionLogsDecoder;
+import com.netease.cloud.util.json.JSONException;
+import com.netease.cloud.util.json.JSONObject;
+
+/**
+ * Benchmarks of decoding get_logs pages of various sizes, and of serializing the request body and
+ * a page.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    @Param({"10", "100", "1000"})
+    public int logs;
+
+    private final SubscriptionLogsDecoder decoder = new SubscriptionLogsDecoder();
+    private byte[] page;
+    private List<String> pageLogs;
+
+    @Setup
+    public void setUp() throws IOException {
+        page = BenchmarkData.getLogsPage(logs);
+        pageLogs = new ArrayList<String>(logs);
+        decoder.decode(new ByteArrayInputStream(page), new LogRecordListener() {
+            public void onLog(String log) {
+                pageLogs.add(log);
+            }
+        });
+    }
+
+    @Benchmark
+    public String decodePage(final Blackhole blackhole) throws IOException {
+        return decoder.decode(new ByteArrayInputStream(page), new LogRecordListener() {
+            public void onLog(String log) {
+                blackhole.consume(log);
+            }
+        });
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(page.length);
+        JsonGenerator generator = jsonFactory.createJsonGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(SubscriptionLogsDecoder.LOGS_FIELD);
+        for (String log : pageLogs) {
+            generator.writeString(log);
+        }
+        generator.writeEndArray();
+        generator.writeStringField(SubscriptionLogsDecoder.POSITION_FIELD, BenchmarkData.POSITION);
+        generator.writeEndObject();
+        generator.close();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public String encodeRequestBody() throws JSONException {
+        JSONObject content = new JSONObject();
+        content.put("position", BenchmarkData.POSITION);
+        content.put("limit", logs);
+        return content.toString();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.netease.cloud.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.netease.cloud.auth.BasicCredentials;
+import com.netease.cloud.auth.Credentials;
+import com.netease.cloud.auth.StreamProxySigner;
+import com.netease.cloud.client.StreamProxyClient;
+import com.netease.cloud.http.HttpRequestFactory;
+import com.netease.cloud.http.Request;
+
+/**
+ * Benchmarks of building a get_logs request: the JSON body, its digest, the headers and the
+ * signature, then its conversion to an Apache HttpClient request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBenchmark {
+
+    private final HttpRequestFactory httpRequestFactory = new HttpRequestFactory();
+    private RequestFactoryClient client;
+    private Request request;
+
+    @Setup
+    public void setUp() {
+        client = new RequestFactoryClient();
+        request = client.createGetLogsRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.shutdown();
+    }
+
+    @Benchmark
+    public Request createGetLogsRequest() {
+        return client.createGetLogsRequest();
+    }
+
+    @Benchmark
+    public Object createHttpRequest() {
+        return httpRequestFactory.createHttpRequest(request);
+    }
+
+    /**
+     * Exposes the request factory method of the client. The client signs requests when sending
+     * them, so the request is signed here the same way.
+     */
+    static class RequestFactoryClient extends StreamProxyClient {
+
+        private final StreamProxySigner signer = createSigner();
+        private final Credentials credentials =
+                new BasicCredentials(BenchmarkData.ACCESS_KEY, BenchmarkData.SECRET_KEY);
+
+        RequestFactoryClient() {
+            super(BenchmarkData.ACCESS_KEY, BenchmarkData.SECRET_KEY);
+            setEndpoint("http://localhost:8079");
+        }
+
+        Request createGetLogsRequest() {
+            Request request =
+                    createGetLogsRequest(BenchmarkData.POSITION, 1000,
+                            BenchmarkData.SUBSCRIPTION, "/get_logs");
+            signer.sign(request, credentials);
+            return request;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.netease.cloud.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.netease.cloud.client.StreamProxyClient;
+import com.netease.cloud.model.GetLogsRequest;
+import com.netease.cloud.model.LogBatch;
+import com.netease.cloud.test.StreamProxyStubServer;
+
+/**
+ * Benchmarks of a whole get_logs call against an in-process {@link StreamProxyStubServer}:
+ * building and signing the request, sending it on a pooled connection and decoding the page. The
+ * stub checks every signature, so a broken signer fails the benchmark. Run with {@code -t} to
+ * measure the client under concurrent load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoundTripBenchmark {
+
+    @Param({"100", "1000"})
+    public int logs;
+
+    private StreamProxyStubServer server;
+    private StreamProxyClient client;
+    private GetLogsRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        server =
+                new StreamProxyStubServer()
+                        .withCredentials(BenchmarkData.ACCESS_KEY, BenchmarkData.SECRET_KEY)
+                        .withLogSize(320).start();
+        client = new StreamProxyClient(BenchmarkData.ACCESS_KEY, BenchmarkData.SECRET_KEY);
+        client.setEndpoint(server.getEndpoint());
+        request = new GetLogsRequest("0", logs, BenchmarkData.SUBSCRIPTION);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.shutdown();
+        server.stop();
+    }
+
+    @Benchmark
+    public LogBatch getLogs() {
+        return client.getLogs(request);
+    }
+
+}
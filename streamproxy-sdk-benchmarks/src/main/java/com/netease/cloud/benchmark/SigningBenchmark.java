@@ -0,0 +1,83 @@
+package com.netease.cloud.benchmark;
+
+import java.net.URI;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.netease.cloud.auth.BasicCredentials;
+import com.netease.cloud.auth.Credentials;
+import com.netease.cloud.auth.StreamProxySigner;
+import com.netease.cloud.http.DefaultRequest;
+import com.netease.cloud.http.HttpMethod;
+import com.netease.cloud.http.Request;
+import com.netease.cloud.util.DateUtils;
+import com.netease.cloud.util.Md5Utils;
+import com.netease.cloud.util.StringUtils;
+
+/**
+ * Benchmarks of the per request signing work: the Date header, the Content-MD5 of the body, the
+ * canonical string and the whole signature.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SigningBenchmark {
+
+    private static final String BODY = "{\"position\":\"" + BenchmarkData.POSITION
+            + "\",\"limit\":1000}";
+
+    private final StreamProxySigner signer = new StreamProxySigner();
+    private final Credentials credentials =
+            new BasicCredentials(BenchmarkData.ACCESS_KEY, BenchmarkData.SECRET_KEY);
+    private final DateUtils dateUtils = new DateUtils();
+    private Request request;
+
+    @Setup
+    public void setUp() throws Exception {
+        request = new DefaultRequest();
+        request.setHttpMethod(HttpMethod.POST);
+        request.setEndpoint(new URI("http://localhost:8079"));
+        request.setResourcePath("/get_logs");
+        request.setContent(BODY);
+        request.setEncryptContent(Md5Utils.computeMD5Hex(BODY));
+        request.addHeader("Content-Type", "application/json");
+        request.addHeader("Host", BenchmarkData.SUBSCRIPTION + ".c.163.com");
+        signer.sign(request, credentials);
+    }
+
+    @Benchmark
+    public Request sign() {
+        signer.sign(request, credentials);
+        return request;
+    }
+
+    @Benchmark
+    public String canonicalString() {
+        return StringUtils.makeCanonicalString(request);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return dateUtils.formatRfc1123Date(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public String md5() throws NoSuchAlgorithmException {
+        return Md5Utils.computeMD5Hex(BODY);
+    }
+
+}
@@ -3,9 +3,6 @@ package com.netease.cloud.auth;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-
 import org.apache.commons.codec.binary.Base64;
 
 import com.netease.cloud.exception.ClientException;
@@ -20,6 +17,9 @@ public abstract class AbstractSigner implements Signer {
     /** The default encoding to use when URL encoding */
     private static final String DEFAULT_ENCODING = "UTF-8";
 
+    /** The most recently sanitized credentials, reused while the source values don't change. */
+    private volatile SanitizedCredentials lastSanitized;
+
     /**
      * Computes an RFC 2104-compliant HMAC signature and returns the result as a Base64 encoded
      * string.
@@ -53,7 +53,7 @@ public abstract class AbstractSigner implements Signer {
     protected String signAndBase64Encode(byte[] data, String key, SigningAlgorithm algorithm)
             throws ClientException {
         try {
-            byte[] signature = sign(data, key.getBytes(DEFAULT_ENCODING), algorithm);
+            byte[] signature = MacCache.doFinal(algorithm, key, data);
             return new String(Base64.encodeBase64(signature));
         } catch (Exception e) {
             throw new ClientException("Unable to calculate a request signature: " + e.getMessage(),
@@ -95,9 +95,25 @@ public abstract class AbstractSigner implements Signer {
     protected byte[] sign(byte[] data, byte[] key, SigningAlgorithm algorithm)
             throws ClientException {
         try {
-            Mac mac = Mac.getInstance(algorithm.toString());
-            mac.init(new SecretKeySpec(key, algorithm.toString()));
-            return mac.doFinal(data);
+            return MacCache.doFinal(algorithm, key, data);
+        } catch (Exception e) {
+            throw new ClientException("Unable to calculate a request signature: " + e.getMessage(),
+                    e);
+        }
+    }
+
+    /**
+     * Acquires a pooled Mac initialized for the key. The entry must be released with
+     * {@link MacCache#release(MacCache.Entry)} once its Mac has been used.
+     * 
+     * @param key The key to sign data.
+     * @param algorithm The algorithm to sign data.
+     * @return An entry holding the initialized Mac.
+     * @throws ClientException ClientException.
+     */
+    MacCache.Entry acquireMac(String key, SigningAlgorithm algorithm) throws ClientException {
+        try {
+            return MacCache.acquire(algorithm, key);
         } catch (Exception e) {
             throw new ClientException("Unable to calculate a request signature: " + e.getMessage(),
                     e);
@@ -138,12 +154,41 @@ public abstract class AbstractSigner implements Signer {
             secretKey = credentials.getSecretKey();
 
         }
+
+        /*
+         * Credentials rarely change, so reuse the previously sanitized copy as long as the source
+         * values are the very same strings.
+         */
+        SanitizedCredentials cached = lastSanitized;
+        if (cached != null && cached.sourceAccessKeyId == accessKeyId
+                && cached.sourceSecretKey == secretKey) {
+            return cached.credentials;
+        }
+
+        String sourceAccessKeyId = accessKeyId;
+        String sourceSecretKey = secretKey;
         if (secretKey != null)
             secretKey = secretKey.trim();
         if (accessKeyId != null)
             accessKeyId = accessKeyId.trim();
 
-        return new BasicCredentials(accessKeyId, secretKey);
+        Credentials sanitized = new BasicCredentials(accessKeyId, secretKey);
+        lastSanitized = new SanitizedCredentials(sourceAccessKeyId, sourceSecretKey, sanitized);
+        return sanitized;
+    }
+
+    /** Sanitized credentials together with the raw values they were created from. */
+    private static class SanitizedCredentials {
+        private final String sourceAccessKeyId;
+        private final String sourceSecretKey;
+        private final Credentials credentials;
+
+        SanitizedCredentials(String sourceAccessKeyId, String sourceSecretKey,
+                Credentials credentials) {
+            this.sourceAccessKeyId = sourceAccessKeyId;
+            this.sourceSecretKey = sourceSecretKey;
+            this.credentials = credentials;
+        }
     }
 
 }
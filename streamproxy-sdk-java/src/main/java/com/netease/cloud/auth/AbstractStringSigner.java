@@ -2,9 +2,6 @@ package com.netease.cloud.auth;
 
 import java.io.UnsupportedEncodingException;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-
 import org.apache.commons.codec.binary.Base64;
 
 import com.netease.cloud.exception.ClientException;
@@ -46,7 +43,7 @@ public abstract class AbstractStringSigner implements StringSigner {
     protected String signAndBase64Encode(byte[] data, String key, SigningAlgorithm algorithm)
             throws ClientException {
         try {
-            byte[] signature = sign(data, key.getBytes(DEFAULT_ENCODING), algorithm);
+            byte[] signature = MacCache.doFinal(algorithm, key, data);
             return new String(Base64.encodeBase64(signature));
         } catch (Exception e) {
             throw new ClientException("Unable to calculate a request signature: " + e.getMessage(),
@@ -88,9 +85,7 @@ public abstract class AbstractStringSigner implements StringSigner {
     protected byte[] sign(byte[] data, byte[] key, SigningAlgorithm algorithm)
             throws ClientException {
         try {
-            Mac mac = Mac.getInstance(algorithm.toString());
-            mac.init(new SecretKeySpec(key, algorithm.toString()));
-            return mac.doFinal(data);
+            return MacCache.doFinal(algorithm, key, data);
         } catch (Exception e) {
             throw new ClientException("Unable to calculate a request signature: " + e.getMessage(),
                     e);
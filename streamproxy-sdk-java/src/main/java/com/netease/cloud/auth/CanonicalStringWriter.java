@@ -0,0 +1,109 @@
+package com.netease.cloud.auth;
+
+import javax.crypto.Mac;
+
+import com.netease.cloud.http.Headers;
+import com.netease.cloud.http.Request;
+import com.netease.cloud.util.BufferPool;
+import com.netease.cloud.util.StringUtils;
+
+/**
+ * Feeds the UTF-8 bytes of a request's canonical string directly into a {@link Mac}, without
+ * building the canonical string or its byte array. The bytes produced are exactly those of
+ * {@link StringUtils#makeCanonicalString(Request)} encoded as UTF-8.
+ * <p>
+ * Characters are encoded into a small buffer from the {@link BufferPool} that is flushed into the
+ * Mac whenever it fills up, so canonicalization allocates nothing in the steady state.
+ */
+final class CanonicalStringWriter {
+
+    /** Minimum size of the encoding buffer; must hold at least one encoded code point. */
+    private static final int BUFFER_SIZE = 256;
+
+    private CanonicalStringWriter() {}
+
+    /**
+     * Updates the Mac with the canonical string of the request.
+     * 
+     * @param mac The Mac to update.
+     * @param request The request to canonicalize.
+     */
+    static void update(Mac mac, Request request) {
+        byte[] buffer = BufferPool.acquire(BUFFER_SIZE);
+        try {
+            update(mac, buffer, request);
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    private static void update(Mac mac, byte[] buffer, Request request) {
+        int length = 0;
+        // HTTP-Verb
+        length = append(mac, buffer, length, String.valueOf(request.getHttpMethod()));
+        length = append(mac, buffer, length, '\n');
+        // Content-MD5
+        length = append(mac, buffer, length, request.getEncryptContent());
+        length = append(mac, buffer, length, '\n');
+        // Content-Type
+        length = append(mac, buffer, length, request.getHeaders().get(Headers.CONTENT_TYPE));
+        length = append(mac, buffer, length, '\n');
+        // Date
+        length = append(mac, buffer, length, request.getHeaders().get(Headers.DATE));
+        length = append(mac, buffer, length, '\n');
+        // CanonicalizedHeaders
+        length = append(mac, buffer, length, '\n');
+        // CanonicalizedResource
+        length = append(mac, buffer, length, request.getResourcePath());
+        mac.update(buffer, 0, length);
+    }
+
+    private static int append(Mac mac, byte[] buffer, int length, char c) {
+        if (length == buffer.length) {
+            mac.update(buffer, 0, length);
+            length = 0;
+        }
+        buffer[length++] = (byte) c;
+        return length;
+    }
+
+    /**
+     * Encodes the string as UTF-8 into the buffer, flushing the buffer into the Mac as needed. A
+     * null string is written as "null", like string concatenation does.
+     */
+    private static int append(Mac mac, byte[] buffer, int length, String s) {
+        if (s == null) {
+            s = "null";
+        }
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            if (length > buffer.length - 4) {
+                mac.update(buffer, 0, length);
+                length = 0;
+            }
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                // Unpaired surrogates are replaced, as String.getBytes does
+                buffer[length++] = (byte) '?';
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.netease.cloud.auth;
+
+import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.netease.cloud.util.ObjectPool;
+
+/**
+ * Pool of initialized {@link Mac} instances, one pool per signing algorithm. A pooled Mac is reused
+ * for as long as it is asked for the same key, so neither the provider lookup of
+ * {@link Mac#getInstance(String)} nor the key schedule of {@link Mac#init(java.security.Key)} is
+ * repeated for every request. The pool does not depend on the calling thread, so requests that
+ * each run on a new thread reuse Macs too.
+ * <p>
+ * An entry acquired from this class is owned by the caller until it is released, and must be
+ * released once its Mac has been used.
+ */
+final class MacCache {
+
+    private static final String DEFAULT_ENCODING = "UTF-8";
+
+    /** The number of Macs each stripe of a pool keeps. */
+    private static final int MACS_PER_STRIPE = 4;
+
+    private static final ObjectPool<Entry>[] pools = createPools();
+
+    private MacCache() {}
+
+    /**
+     * Acquires a Mac for the specified algorithm, initialized with the UTF-8 bytes of the key.
+     * 
+     * @param algorithm The signing algorithm.
+     * @param key The secret key.
+     * @return An entry holding the initialized Mac, owned by the caller until released.
+     */
+    static Entry acquire(SigningAlgorithm algorithm, String key) throws GeneralSecurityException,
+            UnsupportedEncodingException {
+        Entry entry = poll(algorithm);
+        if (!key.equals(entry.keyString)) {
+            byte[] keyBytes = key.getBytes(DEFAULT_ENCODING);
+            entry.init(algorithm, keyBytes);
+            entry.keyString = key;
+        }
+        return entry;
+    }
+
+    /**
+     * Acquires a Mac for the specified algorithm, initialized with the key.
+     * 
+     * @param algorithm The signing algorithm.
+     * @param key The secret key bytes.
+     * @return An entry holding the initialized Mac, owned by the caller until released.
+     */
+    static Entry acquire(SigningAlgorithm algorithm, byte[] key) throws GeneralSecurityException {
+        Entry entry = poll(algorithm);
+        if (entry.keyBytes == null || !Arrays.equals(key, entry.keyBytes)) {
+            entry.init(algorithm, key.clone());
+            entry.keyString = null;
+        }
+        return entry;
+    }
+
+    /**
+     * Resets the Mac of the entry and returns the entry to its pool.
+     * 
+     * @param entry The entry, or null.
+     */
+    static void release(Entry entry) {
+        if (entry != null) {
+            entry.mac.reset();
+            pools[entry.algorithm.ordinal()].offer(entry);
+        }
+    }
+
+    /**
+     * Computes the Mac of the data with a pooled Mac.
+     * 
+     * @param algorithm The signing algorithm.
+     * @param key The secret key.
+     * @param data The data to sign.
+     * @return The Mac of the data.
+     */
+    static byte[] doFinal(SigningAlgorithm algorithm, String key, byte[] data)
+            throws GeneralSecurityException, UnsupportedEncodingException {
+        Entry entry = acquire(algorithm, key);
+        try {
+            return entry.mac.doFinal(data);
+        } finally {
+            release(entry);
+        }
+    }
+
+    /**
+     * Computes the Mac of the data with a pooled Mac.
+     * 
+     * @param algorithm The signing algorithm.
+     * @param key The secret key bytes.
+     * @param data The data to sign.
+     * @return The Mac of the data.
+     */
+    static byte[] doFinal(SigningAlgorithm algorithm, byte[] key, byte[] data)
+            throws GeneralSecurityException {
+        Entry entry = acquire(algorithm, key);
+        try {
+            return entry.mac.doFinal(data);
+        } finally {
+            release(entry);
+        }
+    }
+
+    private static Entry poll(SigningAlgorithm algorithm) throws GeneralSecurityException {
+        Entry entry = pools[algorithm.ordinal()].poll();
+        if (entry == null) {
+            entry = new Entry(algorithm, Mac.getInstance(algorithm.toString()));
+        }
+        return entry;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static ObjectPool<Entry>[] createPools() {
+        ObjectPool<Entry>[] pools = new ObjectPool[SigningAlgorithm.values().length];
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = new ObjectPool<Entry>(MACS_PER_STRIPE);
+        }
+        return pools;
+    }
+
+    /** A Mac together with the key it is currently initialized with. */
+    static class Entry {
+        private final SigningAlgorithm algorithm;
+        private final Mac mac;
+        private byte[] keyBytes;
+        private String keyString;
+
+        Entry(SigningAlgorithm algorithm, Mac mac) {
+            this.algorithm = algorithm;
+            this.mac = mac;
+        }
+
+        /**
+         * Returns the initialized Mac of this entry.
+         * 
+         * @return The Mac.
+         */
+        Mac getMac() {
+            return mac;
+        }
+
+        void init(SigningAlgorithm algorithm, byte[] key) throws GeneralSecurityException {
+            keyBytes = null;
+            keyString = null;
+            mac.init(new SecretKeySpec(key, algorithm.toString()));
+            keyBytes = key;
+        }
+    }
+
+}
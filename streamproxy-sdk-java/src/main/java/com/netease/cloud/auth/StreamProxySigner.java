@@ -1,7 +1,8 @@
 package com.netease.cloud.auth;
 
-import java.util.Date;
+import javax.crypto.Mac;
 
+import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -9,7 +10,6 @@ import com.netease.cloud.exception.ClientException;
 import com.netease.cloud.http.Headers;
 import com.netease.cloud.http.Request;
 import com.netease.cloud.util.DateUtils;
-import com.netease.cloud.util.StringUtils;
 
 /**
  * Implementation of the {@linkplain Signer} interface specific to StreamProxy's signing algorithm.
@@ -19,6 +19,9 @@ public class StreamProxySigner extends AbstractSigner {
     /** Shared log for signing debug output */
     private static final Log log = LogFactory.getLog(StreamProxySigner.class);
 
+    /** Shared, thread-safe date formatter for the Date header */
+    private static final DateUtils dateUtils = new DateUtils();
+
     /**
      * Constructs a new S3Signer to sign requests based on the credentials, HTTP method and
      * canonical S3 resource path.
@@ -40,12 +43,22 @@ public class StreamProxySigner extends AbstractSigner {
 
         Credentials sanitizedCredentials = sanitizeCredentials(credentials);
 
-        request.addHeader(Headers.DATE, new DateUtils().formatRfc1123Date(new Date()));
-        String canonicalString = StringUtils.makeCanonicalString(request);
+        request.addHeader(Headers.DATE, dateUtils.formatRfc1123Date(System.currentTimeMillis()));
 
-        String signature =
-                super.signAndBase64Encode(canonicalString, sanitizedCredentials.getSecretKey(),
-                        SigningAlgorithm.HmacSHA256);
+        // Feed the canonical string into a pooled Mac without materializing it
+        MacCache.Entry entry =
+                acquireMac(sanitizedCredentials.getSecretKey(), SigningAlgorithm.HmacSHA256);
+        String signature;
+        try {
+            Mac mac = entry.getMac();
+            CanonicalStringWriter.update(mac, request);
+            signature = new String(Base64.encodeBase64(mac.doFinal()));
+        } catch (RuntimeException e) {
+            throw new ClientException("Unable to calculate a request signature: " + e.getMessage(),
+                    e);
+        } finally {
+            MacCache.release(entry);
+        }
         request.addHeader("Authorization", "LOG " + sanitizedCredentials.getAccessKeyId() + ":"
                 + signature);
     }
@@ -0,0 +1,29 @@
+package com.netease.cloud.client;
+
+/**
+ * Callback interface for notification on the completion of an asynchronous request. Callbacks are
+ * invoked on the thread that executed the request, so implementations should return quickly.
+ * 
+ * @param <REQUEST> The type of the original request.
+ * @param <RESULT> The type of the result of the request.
+ */
+public interface AsyncHandler<REQUEST, RESULT> {
+
+    /**
+     * Invoked after an asynchronous request completed successfully.
+     * 
+     * @param request The request that was executed.
+     * @param result The successful result of the request.
+     */
+    public void onSuccess(REQUEST request, RESULT result);
+
+    /**
+     * Invoked after an asynchronous request failed.
+     * 
+     * @param exception The exception describing the failure, normally a {@link
+     *        com.netease.cloud.exception.ClientException} or {@link
+     *        com.netease.cloud.exception.ServiceException}.
+     */
+    public void onError(Exception exception);
+
+}
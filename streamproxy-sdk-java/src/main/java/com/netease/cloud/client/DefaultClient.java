@@ -3,6 +3,8 @@ package com.netease.cloud.client;
 import java.net.URI;
 import java.net.URISyntaxException;
 
+import org.apache.commons.logging.LogFactory;
+
 import com.netease.cloud.config.ClientConfiguration;
 
 /**
@@ -20,6 +22,9 @@ public abstract class DefaultClient {
     /** Low level client for sending requests to services. */
     protected NeteaseHttpClient client;
 
+    /** Logs the sampled requests and responses of this client. */
+    protected RequestLogger requestLogger;
+
 
     /**
      * Constructs a new WebServiceClient object using the specified configuration.
@@ -29,6 +34,7 @@ public abstract class DefaultClient {
     public DefaultClient(ClientConfiguration clientConfiguration) {
         this.clientConfiguration = clientConfiguration;
         client = new NeteaseHttpClient(clientConfiguration);
+        requestLogger = new RequestLogger(LogFactory.getLog(getClass()), clientConfiguration);
     }
 
     /**
@@ -59,13 +65,23 @@ public abstract class DefaultClient {
     }
 
     /**
-     * Set configuration
+     * Set configuration. The low level client built for the previous configuration is shut down,
+     * releasing its connection pool and request threads.
+     * <p>
+     * <b>This method is not threadsafe. The configuration should be given to the constructor, or
+     * set before any service requests are made: requests in transit on the previous configuration
+     * are aborted.</b>
      * 
      * @param clientConfiguration clientConfiguration.
      */
     public void setConfiguration(ClientConfiguration clientConfiguration) {
+        NeteaseHttpClient previous = client;
         this.clientConfiguration = clientConfiguration;
         client = new NeteaseHttpClient(clientConfiguration);
+        requestLogger = new RequestLogger(LogFactory.getLog(getClass()), clientConfiguration);
+        if (previous != null) {
+            previous.shutdown();
+        }
     }
 
     /**
@@ -1,23 +1,46 @@
 package com.netease.cloud.client;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.Header;
 import org.apache.http.HttpStatus;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpRequestBase;
 
+import com.netease.cloud.auth.Credentials;
 import com.netease.cloud.config.ClientConfiguration;
 import com.netease.cloud.exception.ClientException;
 import com.netease.cloud.exception.ServiceException;
-import com.netease.cloud.http.HttpClientFactory;
-import com.netease.cloud.http.HttpRequestFactory;
+import com.netease.cloud.http.ApacheHttpTransport;
+import com.netease.cloud.http.ContentDecoder;
+import com.netease.cloud.http.ExecutionContext;
+import com.netease.cloud.http.Headers;
+import com.netease.cloud.http.HostConnectionLimiter;
 import com.netease.cloud.http.HttpResponse;
-import com.netease.cloud.http.IdleConnectionReaper;
+import com.netease.cloud.http.HttpResponseHandler;
+import com.netease.cloud.http.HttpTransport;
+import com.netease.cloud.http.HttpTransportFactory;
+import com.netease.cloud.http.PoolStats;
 import com.netease.cloud.http.Request;
+import com.netease.cloud.metrics.Metric;
+import com.netease.cloud.metrics.MetricsCollector;
+import com.netease.cloud.metrics.RequestMetrics;
+import com.netease.cloud.retry.RetryBudget;
+import com.netease.cloud.retry.RetryPolicy;
+import com.netease.cloud.throttle.RequestThrottler;
+import com.netease.cloud.util.CountingInputStream;
 import com.netease.cloud.util.StringUtils;
+import com.netease.cloud.util.Utf8Utils;
+import com.netease.cloud.util.VirtualThreads;
 
 public class NeteaseHttpClient {
 
@@ -25,12 +48,20 @@ public class NeteaseHttpClient {
      * Logger providing detailed information on requests/responses.
      */
     private static final Log log = LogFactory.getLog(NeteaseHttpClient.class);
-    /** Internal client for sending HTTP requests */
-    private HttpClient httpClient;
+    /** Transport sending the requests over the wire */
+    private final HttpTransport transport;
     /** Client configuration options, such as proxy settings, max retries, etc. */
     private final ClientConfiguration config;
-    private static HttpRequestFactory httpRequestFactory = new HttpRequestFactory();
-    private static HttpClientFactory httpClientFactory = new HttpClientFactory();
+    /** Executor for asynchronous requests, created on first use */
+    private ExecutorService asyncExecutor;
+    /** Per Host budget of requests in flight */
+    private final HostConnectionLimiter hostLimiter;
+    /** Retry tokens shared by all requests of this client */
+    private final RetryBudget retryBudget;
+    /** Client side rate and concurrency limits */
+    private final RequestThrottler throttler;
+    /** Receives the request metrics, or null */
+    private final MetricsCollector metricsCollector;
 
     /**
      * Constructs a new client using the specified client configuration options (ex: max retry
@@ -41,7 +72,18 @@ public class NeteaseHttpClient {
      */
     public NeteaseHttpClient(ClientConfiguration clientConfiguration) {
         this.config = clientConfiguration;
-        this.httpClient = httpClientFactory.createHttpClient(config);
+        HttpTransportFactory transportFactory = config.getTransportFactory();
+        if (transportFactory == null) {
+            transportFactory = ApacheHttpTransport.FACTORY;
+        }
+        this.transport = transportFactory.createTransport(config);
+        this.hostLimiter =
+                new HostConnectionLimiter(config.getMaxConnectionsPerHost(),
+                        config.getConnectionTimeout());
+        RetryPolicy retryPolicy = config.getRetryPolicy();
+        this.retryBudget = new RetryBudget(retryPolicy != null ? retryPolicy.getRetryBudget() : 0);
+        this.throttler = new RequestThrottler(config);
+        this.metricsCollector = config.getMetricsCollector();
     }
 
     /**
@@ -52,92 +94,433 @@ public class NeteaseHttpClient {
      * 
      */
     public HttpResponse execute(Request request) throws ClientException, ServiceException {
+        return execute(request, (ExecutionContext) null);
+    }
+
+    /**
+     * Executes the request and returns the result, signing it with the execution context right
+     * before every attempt.
+     * 
+     * @param request The Services request to send to the remote server.
+     * @param executionContext The context used to sign the request, may be null.
+     * @return HttpResponse.
+     */
+    public HttpResponse execute(Request request, ExecutionContext executionContext)
+            throws ClientException, ServiceException {
+        return execute(request, new HttpResponseHandler<HttpResponse>() {
+            public HttpResponse handle(HttpResponse response) {
+                if (response.getContentStream() != null) {
+                    response.setContent(new StringUtils().convertStreamToString(
+                            response.getContentStream(), response.getContentLength()));
+                }
+                return response;
+            }
+        }, executionContext);
+    }
+
+    /**
+     * Executes the request and hands the response, with its content still unread, to the specified
+     * response handler.
+     * 
+     * @param request The Services request to send to the remote server.
+     * @param responseHandler The handler decoding the response content.
+     * @return The result returned by the response handler.
+     */
+    public <T> T execute(Request request, HttpResponseHandler<T> responseHandler)
+            throws ClientException, ServiceException {
+        return execute(request, responseHandler, null);
+    }
 
+    /**
+     * Executes the request and hands the response, with its content still unread, to the specified
+     * response handler. Failed attempts are retried as configured by
+     * {@link ClientConfiguration#getRetryPolicy()}. The request is signed with the execution
+     * context right before every attempt, so that its Date header is fresh even after the request
+     * waited for a connection, the rate limits or a retry.
+     * 
+     * @param request The Services request to send to the remote server.
+     * @param responseHandler The handler decoding the response content.
+     * @param executionContext The context used to sign the request, may be null.
+     * @return The result returned by the response handler.
+     */
+    public <T> T execute(Request request, HttpResponseHandler<T> responseHandler,
+            ExecutionContext executionContext) throws ClientException, ServiceException {
+
+        RequestMetrics metrics = RequestMetrics.of(metricsCollector, request);
+        long start = System.nanoTime();
         try {
-            return executeHelper(request);
+            return executeHelper(request, responseHandler, executionContext, metrics);
         } catch (ClientException e) {
             throw e;
+        } finally {
+            if (metrics != null) {
+                metrics.recordTime(Metric.TOTAL_TIME, System.nanoTime() - start);
+            }
         }
     }
 
     /**
-     * Internal method to execute the HTTP method given.
+     * Executes the request asynchronously on the client's request thread pool and returns a Future
+     * for the result. The pool is sized by {@link ClientConfiguration#getAsyncThreadPoolSize()}, so
+     * any number of requests may be submitted while only a bounded number of threads and pooled
+     * connections are in use. With {@link ClientConfiguration#isVirtualThreads()} on JDK 21 or
+     * later, every request runs on its own virtual thread instead.
      * 
-     * @see NeteaseHttpClient#execute(Request)
+     * @param request The Services request to send to the remote server.
+     * @param responseHandler The handler decoding the response content.
+     * @param asyncHandler Optional callback notified on completion, may be null.
+     * @return A Future for the result returned by the response handler.
      */
-    private HttpResponse executeHelper(Request request) throws ClientException, ServiceException {
+    public <T> Future<T> executeAsync(Request request, HttpResponseHandler<T> responseHandler,
+            AsyncHandler<Request, T> asyncHandler) {
+        return executeAsync(request, responseHandler, asyncHandler, null);
+    }
 
-        HttpRequestBase httpRequest = httpRequestFactory.createHttpRequest(request);
-        org.apache.http.HttpResponse response = null;
-        try {
-            response = httpClient.execute(httpRequest);
-            if (isRequestSuccessful(response)) {
-                log.info("execute HTTP request successfully");
-            } else {
-                log.warn("Unable to execute HTTP request Code:"
-                        + response.getStatusLine().getStatusCode() + ", message:"
-                        + response.getStatusLine().getReasonPhrase());
+    /**
+     * Executes the request asynchronously on the client's request thread pool. The request is
+     * signed with the execution context on the pool thread, right before every attempt, rather
+     * than when it is submitted: a request that waited in the queue still carries a fresh Date
+     * header.
+     * 
+     * @param request The Services request to send to the remote server.
+     * @param responseHandler The handler decoding the response content.
+     * @param asyncHandler Optional callback notified on completion, may be null.
+     * @param executionContext The context used to sign the request, may be null.
+     * @return A Future for the result returned by the response handler.
+     * @see #executeAsync(Request, HttpResponseHandler, AsyncHandler)
+     */
+    public <T> Future<T> executeAsync(final Request request,
+            final HttpResponseHandler<T> responseHandler,
+            final AsyncHandler<Request, T> asyncHandler,
+            final ExecutionContext executionContext) {
+        return getAsyncExecutor().submit(new Callable<T>() {
+            public T call() throws Exception {
+                T result;
+                try {
+                    result = execute(request, responseHandler, executionContext);
+                } catch (ClientException e) {
+                    if (asyncHandler != null) {
+                        asyncHandler.onError(e);
+                    }
+                    throw e;
+                }
+                if (asyncHandler != null) {
+                    asyncHandler.onSuccess(request, result);
+                }
+                return result;
             }
-            return createResponse(httpRequest, request, response);
-        } catch (IOException ioe) {
-            log.warn("Unable to execute HTTP request: " + ioe.getMessage(), ioe);
-            throw new ClientException("Unable to execute HTTP request: " + ioe.getMessage(), ioe);
-        } finally {
-            /*
-             * Some response handlers need to manually manage the HTTP connection and will take care
-             * of releasing the connection on their own, but if this response handler doesn't need
-             * the connection left open, we go ahead and release the it to free up resources.
-             */
-            try {
-                response.getEntity().getContent().close();
-            } catch (Throwable t) {
+        });
+    }
+
+    private synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null && config.isVirtualThreads()) {
+            ThreadFactory threadFactory = VirtualThreads.newThreadFactory("streamproxy-async-");
+            if (threadFactory != null) {
+                // One new virtual thread per request: pooling virtual threads buys nothing
+                asyncExecutor =
+                        new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS,
+                                new SynchronousQueue<Runnable>(), threadFactory);
+            }
+        }
+        if (asyncExecutor == null) {
+            int threads = config.getAsyncThreadPoolSize();
+            if (threads <= 0) {
+                threads = config.getMaxConnections();
             }
+            asyncExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable r) {
+                    Thread t =
+                            new AsyncThread(r, "streamproxy-async-" + count.incrementAndGet(),
+                                    NeteaseHttpClient.this);
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
         }
+        return asyncExecutor;
     }
 
     /**
-     * Shuts down this HTTP client object, releasing any resources that might be held open. This is
-     * an optional method, and callers are not expected to call it, but can if they want to
-     * explicitly release any open resources. Once a client has been shutdown, it cannot be used to
-     * make more requests.
+     * Returns whether the current thread is one of the bounded request pool threads of this client.
+     * A task running on such a thread must not block on other requests submitted to the pool: when
+     * every pool thread does so, none is left to run the requests they wait for.
+     * 
+     * @return True if the current thread belongs to the request thread pool of this client.
      */
-    public void shutdown() {
-        IdleConnectionReaper.removeConnectionManager(httpClient.getConnectionManager());
-        httpClient.getConnectionManager().shutdown();
+    boolean isAsyncThread() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof AsyncThread && ((AsyncThread) thread).owner == this;
     }
 
-    private boolean isRequestSuccessful(org.apache.http.HttpResponse response) {
-        int status = response.getStatusLine().getStatusCode();
-        return status / 100 == HttpStatus.SC_OK / 100;
+    /** A thread of the bounded request pool, tagged with the client owning the pool. */
+    private static class AsyncThread extends Thread {
+        private final NeteaseHttpClient owner;
+
+        AsyncThread(Runnable target, String name, NeteaseHttpClient owner) {
+            super(target, name);
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Internal method to execute the HTTP method given, retrying failed attempts as allowed by the
+     * retry policy and the client's retry budget.
+     * 
+     * @see NeteaseHttpClient#execute(Request, HttpResponseHandler, ExecutionContext)
+     */
+    private <T> T executeHelper(Request request, HttpResponseHandler<T> responseHandler,
+            ExecutionContext executionContext, RequestMetrics metrics) throws ClientException,
+            ServiceException {
+
+        String host = request.getHeaders().get("Host");
+        if (host == null) {
+            host = request.getEndpoint().getHost();
+        }
+        String accessKeyId = null;
+        if (throttler.isEnabled() && executionContext != null
+                && executionContext.getCredentialsProvider() != null) {
+            Credentials credentials = executionContext.getCredentialsProvider().getCredentials();
+            accessKeyId = credentials != null ? credentials.getAccessKeyId() : null;
+        }
+        if (config.isResponseCompression()
+                && request.getHeaders().get(Headers.ACCEPT_ENCODING) == null) {
+            request.addHeader(Headers.ACCEPT_ENCODING, ContentDecoder.ACCEPTED_ENCODINGS);
+        }
+        for (int retries = 0;; retries++) {
+            if (retries > 0) {
+                pauseBeforeRetry(retries - 1);
+                if (metrics != null) {
+                    metrics.increment(Metric.RETRIES, 1);
+                }
+            }
+
+            long queueStart = System.nanoTime();
+            HttpResponse response = null;
+            CountingInputStream received = null;
+            // Once the handler has consumed part of the response, the attempt can't be replayed
+            boolean handling = false;
+            boolean throttled = false;
+            // Whether the attempt failed and was already counted as an error
+            boolean failed = false;
+            boolean leased = false;
+            int status = -1;
+            long latency = -1;
+            try {
+                hostLimiter.acquire(host);
+                leased = true;
+                throttler.acquire(host, accessKeyId);
+                throttled = true;
+                long start = System.nanoTime();
+                if (metrics != null) {
+                    metrics.recordTime(Metric.QUEUE_TIME, start - queueStart);
+                }
+                if (executionContext != null) {
+                    // Signed only now, after any wait, so that the Date header is fresh
+                    executionContext.sign(request);
+                    long signed = System.nanoTime();
+                    if (metrics != null) {
+                        metrics.recordTime(Metric.SIGNING_TIME, signed - start);
+                    }
+                    start = signed;
+                }
+                if (metrics != null) {
+                    metrics.increment(Metric.REQUESTS, 1);
+                    if (request.getContent() != null) {
+                        metrics.increment(Metric.BYTES_SENT,
+                                Utf8Utils.encodedLength(request.getContent()));
+                    }
+                }
+                response = transport.execute(request);
+                latency = System.nanoTime() - start;
+                status = response.getStatusCode();
+                if (metrics != null) {
+                    metrics.recordTime(Metric.REQUEST_TIME, latency);
+                    if (status == 429 || status == 503) {
+                        metrics.increment(Metric.THROTTLED, 1);
+                    }
+                }
+                if (isRequestSuccessful(status)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("execute HTTP request successfully");
+                    }
+                } else {
+                    if (shouldRetry(retries, null, status)) {
+                        log.warn("Retrying HTTP request after Code:" + status + ", message:"
+                                + response.getStatusText());
+                        continue;
+                    }
+                    log.warn("Unable to execute HTTP request Code:" + status + ", message:"
+                            + response.getStatusText());
+                    failed = true;
+                    recordError(metrics);
+                }
+                if (metrics != null && response.getContentStream() != null) {
+                    received = new CountingInputStream(response.getContentStream());
+                    response.setContentStream(received);
+                }
+                ContentDecoder.decode(response);
+                handling = true;
+                long parseStart = System.nanoTime();
+                T result = responseHandler.handle(response);
+                if (metrics != null) {
+                    metrics.recordTime(Metric.PARSE_TIME, System.nanoTime() - parseStart);
+                }
+                if (!failed) {
+                    // Only successes refill the budget, so a storm of error responses drains it
+                    retryBudget.release();
+                }
+                return result;
+            } catch (IOException ioe) {
+                if (!handling && shouldRetry(retries, ioe, -1)) {
+                    log.warn("Retrying HTTP request after: " + ioe.getMessage());
+                    continue;
+                }
+                log.warn("Unable to execute HTTP request: " + ioe.getMessage(), ioe);
+                if (!failed) {
+                    recordError(metrics);
+                }
+                throw new ClientException("Unable to execute HTTP request: " + ioe.getMessage(),
+                        ioe);
+            } catch (ClientException ce) {
+                if (!failed) {
+                    recordError(metrics);
+                }
+                throw ce;
+            } catch (Exception e) {
+                if (!failed) {
+                    recordError(metrics);
+                }
+                throw new ClientException("Unable to handle HTTP response: " + e.getMessage(), e);
+            } finally {
+                /*
+                 * Some response handlers need to manually manage the HTTP connection and will take
+                 * care of releasing the connection on their own, but if this response handler
+                 * doesn't need the connection left open, we go ahead and release the it to free up
+                 * resources.
+                 */
+                try {
+                    response.getContentStream().close();
+                } catch (Throwable t) {
+                }
+                if (received != null) {
+                    metrics.increment(Metric.BYTES_RECEIVED, received.getCount());
+                }
+                if (throttled) {
+                    throttler.release(status, latency);
+                }
+                if (leased) {
+                    hostLimiter.release(host);
+                }
+            }
+        }
     }
 
     /**
-     * Creates and initializes an HttpResponse object suitable to be passed to an HTTP response
-     * handler object.
+     * Returns whether a failed attempt may be retried, taking a token from the retry budget if so.
      * 
-     * @param method The HTTP method that was invoked to get the response.
-     * @param request The HTTP request associated with the response.
-     * @return The new, initialized HttpResponse object ready to be passed to an HTTP response
-     *         handler object.
-     * @throws IOException If there were any problems getting any response information from the
-     *         HttpClient method object.
+     * @param retries The number of retries made so far.
+     * @param exception The exception the attempt failed with, or null.
+     * @param status The HTTP status code of the response, or -1 if there was no response.
      */
-    private HttpResponse createResponse(HttpRequestBase method, Request request,
-            org.apache.http.HttpResponse apacheHttpResponse) throws IOException {
-        HttpResponse httpResponse = new HttpResponse(request, method);
+    private boolean shouldRetry(int retries, Exception exception, int status) {
+        RetryPolicy retryPolicy = config.getRetryPolicy();
+        if (retryPolicy == null || retries >= retryPolicy.getMaxErrorRetry()) {
+            return false;
+        }
+        boolean retryable =
+                exception != null ? retryPolicy.isRetryableException(exception) : retryPolicy
+                        .isRetryableStatusCode(status);
+        if (!retryable) {
+            return false;
+        }
+        if (!retryBudget.tryAcquire()) {
+            log.warn("Not retrying HTTP request, the retry budget is exhausted");
+            return false;
+        }
+        return true;
+    }
 
-        if (apacheHttpResponse.getEntity() != null) {
-            httpResponse.setContent(new StringUtils().convertStreamToString(apacheHttpResponse
-                    .getEntity().getContent()));
+    /**
+     * Counts a failed call, if metrics are collected.
+     */
+    private static void recordError(RequestMetrics metrics) {
+        if (metrics != null) {
+            metrics.increment(Metric.ERRORS, 1);
         }
+    }
 
-        httpResponse.setStatusCode(apacheHttpResponse.getStatusLine().getStatusCode());
-        httpResponse.setStatusText(apacheHttpResponse.getStatusLine().getReasonPhrase());
-        for (Header header : apacheHttpResponse.getAllHeaders()) {
-            httpResponse.addHeader(header.getName(), header.getValue());
+    private void pauseBeforeRetry(int retries) {
+        long delay = config.getRetryPolicy().computeDelay(retries);
+        if (delay <= 0) {
+            return;
         }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted waiting to retry HTTP request", e);
+        }
+    }
 
-        return httpResponse;
+    /**
+     * Returns the number of requests currently allowed in flight by the adaptive concurrency
+     * limit, or -1 if {@link ClientConfiguration#isAdaptiveConcurrency()} is disabled.
+     * 
+     * @return The current concurrency limit.
+     */
+    public int getConcurrencyLimit() {
+        return throttler.getConcurrencyLimit();
+    }
+
+    /**
+     * Returns the usage of the whole connection pool.
+     * 
+     * @return A snapshot of the connection pool usage.
+     */
+    public PoolStats getPoolStats() {
+        return transport.getPoolStats();
+    }
+
+    /**
+     * Returns the usage of the pooled connections to the specified endpoint.
+     * 
+     * @param endpoint The endpoint, including the protocol.
+     * @return A snapshot of the connection usage of the endpoint.
+     */
+    public PoolStats getPoolStats(URI endpoint) {
+        return transport.getPoolStats(endpoint);
+    }
+
+    /**
+     * Returns the number of requests in flight and waiting for the specified Host, limited by
+     * {@link ClientConfiguration#getMaxConnectionsPerHost()}.
+     * 
+     * @param host The Host header.
+     * @return A snapshot of the request budget usage of the Host.
+     */
+    public PoolStats getHostStats(String host) {
+        return hostLimiter.getStats(host);
+    }
+
+    /**
+     * Shuts down this HTTP client object, releasing any resources that might be held open. This is
+     * an optional method, and callers are not expected to call it, but can if they want to
+     * explicitly release any open resources. Once a client has been shutdown, it cannot be used to
+     * make more requests.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (asyncExecutor != null) {
+                asyncExecutor.shutdownNow();
+            }
+        }
+        transport.shutdown();
+    }
+
+    private boolean isRequestSuccessful(int status) {
+        return status / 100 == HttpStatus.SC_OK / 100;
     }
 
 }
@@ -0,0 +1,127 @@
+package com.netease.cloud.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+
+import com.netease.cloud.config.ClientConfiguration;
+import com.netease.cloud.http.HttpResponse;
+import com.netease.cloud.http.Request;
+
+/**
+ * Logs the requests and responses of a client at DEBUG level. A call is logged only if DEBUG is
+ * enabled and the call is sampled by {@link ClientConfiguration#getRequestLogSampleRate()}, and its
+ * bodies are truncated to {@link ClientConfiguration#getMaxLoggedContentLength()} characters, so no
+ * message is built for the calls that aren't logged and a logged call never copies a whole body.
+ * <p>
+ * Callers decide once per call with {@link #isSampled()}, then log both sides of the call:
+ * 
+ * <pre>
+ * boolean logged = requestLogger.isSampled();
+ * if (logged) {
+ *     requestLogger.logRequest(request);
+ * }
+ * </pre>
+ */
+public class RequestLogger {
+
+    private final Log log;
+    private final double sampleRate;
+    private final int maxContentLength;
+    /** Number of calls considered for sampling */
+    private final AtomicLong calls = new AtomicLong();
+
+    /**
+     * Constructs a logger of requests configured by the client configuration.
+     * 
+     * @param log The log the calls are written to.
+     * @param config The client configuration.
+     */
+    public RequestLogger(Log log, ClientConfiguration config) {
+        this.log = log;
+        this.sampleRate = Math.max(0, Math.min(1, config.getRequestLogSampleRate()));
+        this.maxContentLength = Math.max(0, config.getMaxLoggedContentLength());
+    }
+
+    /**
+     * Returns whether the current call should be logged. The n-th call is sampled when
+     * {@code floor(n * rate)} increases, which logs exactly the configured fraction of the calls
+     * without drawing random numbers.
+     * 
+     * @return True if the call should be logged.
+     */
+    public boolean isSampled() {
+        if (sampleRate <= 0 || !log.isDebugEnabled()) {
+            return false;
+        }
+        if (sampleRate >= 1) {
+            return true;
+        }
+        long n = calls.incrementAndGet();
+        return (long) (n * sampleRate) != (long) ((n - 1) * sampleRate);
+    }
+
+    /**
+     * Logs a request about to be sent.
+     * 
+     * @param request The request.
+     */
+    public void logRequest(Request request) {
+        StringBuilder builder = new StringBuilder(128 + Math.min(maxContentLength, 1024));
+        builder.append("Send request: method=").append(request.getHttpMethod());
+        appendTarget(builder, request);
+        appendContent(builder, request.getContent());
+        log.debug(builder.toString());
+    }
+
+    /**
+     * Logs the raw response of a request.
+     * 
+     * @param request The request.
+     * @param response The response, with its content read.
+     */
+    public void logResponse(Request request, HttpResponse response) {
+        StringBuilder builder = new StringBuilder(128 + Math.min(maxContentLength, 1024));
+        builder.append("Received response: status=").append(response.getStatusCode());
+        appendTarget(builder, request);
+        appendContent(builder, response.getContent());
+        log.debug(builder.toString());
+    }
+
+    /**
+     * Logs the decoded result of a request. The result's string form is logged as is: the model
+     * classes only summarize their content in it.
+     * 
+     * @param request The request.
+     * @param result The decoded result.
+     */
+    public void logResult(Request request, Object result) {
+        StringBuilder builder = new StringBuilder(256);
+        builder.append("Received result:");
+        appendTarget(builder, request);
+        builder.append(" result=").append(result);
+        log.debug(builder.toString());
+    }
+
+    private static void appendTarget(StringBuilder builder, Request request) {
+        builder.append(" host=").append(request.getHeaders().get("Host"));
+        builder.append(" path=").append(request.getResourcePath());
+    }
+
+    private void appendContent(StringBuilder builder, String content) {
+        if (content == null) {
+            return;
+        }
+        builder.append(" length=").append(content.length());
+        if (maxContentLength <= 0) {
+            return;
+        }
+        builder.append(" content=");
+        if (content.length() <= maxContentLength) {
+            builder.append(content);
+        } else {
+            builder.append(content, 0, maxContentLength).append("...");
+        }
+    }
+
+}
@@ -1,12 +1,14 @@
 package com.netease.cloud.client;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.NoSuchAlgorithmException;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import com.netease.cloud.auth.BasicCredentials;
 import com.netease.cloud.auth.CredentialsProvider;
@@ -16,9 +18,22 @@ import com.netease.cloud.config.ClientConfiguration;
 import com.netease.cloud.exception.ClientException;
 import com.netease.cloud.exception.ServiceException;
 import com.netease.cloud.http.DefaultRequest;
+import com.netease.cloud.http.ExecutionContext;
 import com.netease.cloud.http.HttpMethod;
 import com.netease.cloud.http.HttpResponse;
+import com.netease.cloud.http.HttpResponseHandler;
+import com.netease.cloud.http.PoolStats;
 import com.netease.cloud.http.Request;
+import com.netease.cloud.model.FetchSpec;
+import com.netease.cloud.model.GetLogsBatchResult;
+import com.netease.cloud.model.GetLogsRequest;
+import com.netease.cloud.model.GetSubscriptionPositionRequest;
+import com.netease.cloud.model.LogBatch;
+import com.netease.cloud.model.LogRecordListener;
+import com.netease.cloud.model.SubscriptionPosition;
+import com.netease.cloud.model.transform.LogBatchResponseHandler;
+import com.netease.cloud.model.transform.LogStreamResponseHandler;
+import com.netease.cloud.model.transform.SubscriptionPositionResponseHandler;
 import com.netease.cloud.util.CommonUtils;
 import com.netease.cloud.util.Md5Utils;
 import com.netease.cloud.util.PropertiesUtils;
@@ -33,22 +48,36 @@ import com.netease.cloud.util.json.JSONObject;
  */
 public class StreamProxyClient extends DefaultClient implements StreamProxy {
 
-    /** Shared logger for client events */
-    private static Log log = LogFactory.getLog(StreamProxyClient.class);
-
     /** Provider for credentials. */
     private CredentialsProvider CredentialsProvider;
 
+    /** Signer shared by all requests, created on first use. */
+    private volatile StreamProxySigner signer;
+
     /**
-     * Constructs a new streamproxy client using the specified credentials and client configuration
-     * to access streamproxy.
+     * Constructs a new streamproxy client using the specified credentials and the default client
+     * configuration to access streamproxy.
      * 
      * @param accessKey The access id to use when making requests to streamproxy with this client.
      * @param secretKey The secret key to use when making requests to streamproxy with this client.
      * 
      */
     public StreamProxyClient(String accessKey, String secretKey) {
-        super(new ClientConfiguration());
+        this(accessKey, secretKey, new ClientConfiguration());
+    }
+
+    /**
+     * Constructs a new streamproxy client using the specified credentials and client configuration
+     * to access streamproxy.
+     * 
+     * @param accessKey The access id to use when making requests to streamproxy with this client.
+     * @param secretKey The secret key to use when making requests to streamproxy with this client.
+     * @param clientConfiguration The client configuration options controlling how this client
+     *        connects to streamproxy (ex: connection limits, retry policy, etc).
+     */
+    public StreamProxyClient(String accessKey, String secretKey,
+            ClientConfiguration clientConfiguration) {
+        super(clientConfiguration);
         this.CredentialsProvider =
                 new StaticCredentialsProvider(new BasicCredentials(accessKey, secretKey));
         init();
@@ -67,15 +96,39 @@ public class StreamProxyClient extends DefaultClient implements StreamProxy {
      */
     private String executeRequest(Request request) {
         try {
-            log.info("Send request: " + request.toString());
-            HttpResponse respone = client.execute(request);
-            log.info("recevie responses: " + respone.toString());
+            boolean logged = requestLogger.isSampled();
+            if (logged) {
+                requestLogger.logRequest(request);
+            }
+            HttpResponse respone = client.execute(request, createExecutionContext());
+            if (logged) {
+                requestLogger.logResponse(request, respone);
+            }
             return respone.toString();
         } catch (Exception e) {
             throw new ClientException("Execute error " + e.getMessage(), e);
         }
     }
 
+    /**
+     * execute request; send request and decode the response with the given handler.
+     * 
+     * @param request Request.
+     * @param responseHandler Handler decoding the response content.
+     * @return The decoded response.
+     */
+    private <T> T executeRequest(Request request, HttpResponseHandler<T> responseHandler) {
+        boolean logged = requestLogger.isSampled();
+        if (logged) {
+            requestLogger.logRequest(request);
+        }
+        T result = client.execute(request, responseHandler, createExecutionContext());
+        if (logged) {
+            requestLogger.logResult(request, result);
+        }
+        return result;
+    }
+
     /**
      * Get subscription position
      * 
@@ -116,6 +169,257 @@ public class StreamProxyClient extends DefaultClient implements StreamProxy {
         return executeRequest(request);
     }
 
+    /**
+     * Get subscription position, decoded into a typed result.
+     * 
+     * @param getSubscriptionPositionRequest The position type and subscription name.
+     * @return The subscription position.
+     * @throws ClientException ClientException.
+     * @throws ServiceException If the service returned an error response.
+     */
+    public SubscriptionPosition getSubscriptionPosition(
+            GetSubscriptionPositionRequest getSubscriptionPositionRequest) throws ClientException,
+            ServiceException {
+        new CommonUtils().assertParameterNotNull(getSubscriptionPositionRequest,
+                "The get subscription position request parameter must be specified.");
+        String subscriptionName = getSubscriptionPositionRequest.getSubscriptionName();
+        Request request =
+                createSubscriptionPositionRequest(getSubscriptionPositionRequest.getPositionType(),
+                        subscriptionName, PropertiesUtils.getSubscriptionPositionResourcePath());
+
+        return executeRequest(request, new SubscriptionPositionResponseHandler(subscriptionName));
+    }
+
+    /**
+     * Get logs, decoded into a typed result.
+     * 
+     * @param getLogsRequest The position, limit and subscription name.
+     * @return The page of logs and the position following it.
+     * @throws ClientException ClientException.
+     * @throws ServiceException If the service returned an error response.
+     */
+    public LogBatch getLogs(GetLogsRequest getLogsRequest) throws ClientException,
+            ServiceException {
+        new CommonUtils().assertParameterNotNull(getLogsRequest,
+                "The get logs request parameter must be specified.");
+        Request request =
+                createGetLogsRequest(getLogsRequest.getPosition(), getLogsRequest.getLimit(),
+                        getLogsRequest.getSubscriptionName(),
+                        PropertiesUtils.getLogsResourcePath());
+
+        return executeRequest(request, new LogBatchResponseHandler(
+                getLogsRequest.getSubscriptionName(), getLogsRequest.getPosition()));
+    }
+
+    /**
+     * Get logs, streaming each log to the listener as it is decoded from the response. Unlike
+     * {@link #getLogs(GetLogsRequest)} no page of logs is held in memory, so heap usage doesn't
+     * depend on the requested limit.
+     * 
+     * @param getLogsRequest The position, limit and subscription name.
+     * @param listener The listener receiving the logs, in order, on the calling thread.
+     * @return The position following the last log.
+     * @throws ClientException ClientException.
+     * @throws ServiceException If the service returned an error response.
+     */
+    public SubscriptionPosition getLogs(GetLogsRequest getLogsRequest, LogRecordListener listener)
+            throws ClientException, ServiceException {
+        CommonUtils commonUtils = new CommonUtils();
+        commonUtils.assertParameterNotNull(getLogsRequest,
+                "The get logs request parameter must be specified.");
+        commonUtils.assertParameterNotNull(listener, "The listener parameter must be specified.");
+        Request request =
+                createGetLogsRequest(getLogsRequest.getPosition(), getLogsRequest.getLimit(),
+                        getLogsRequest.getSubscriptionName(),
+                        PropertiesUtils.getLogsResourcePath());
+
+        return executeRequest(request, new LogStreamResponseHandler(
+                getLogsRequest.getSubscriptionName(), getLogsRequest.getPosition(), listener));
+    }
+
+    /**
+     * Get subscription position asynchronously.
+     * 
+     * @param getSubscriptionPositionRequest The position type and subscription name.
+     * @return A Future for the subscription position.
+     * @see #getSubscriptionPosition(GetSubscriptionPositionRequest)
+     */
+    public Future<SubscriptionPosition> getSubscriptionPositionAsync(
+            GetSubscriptionPositionRequest getSubscriptionPositionRequest) {
+        return getSubscriptionPositionAsync(getSubscriptionPositionRequest, null);
+    }
+
+    /**
+     * Get subscription position asynchronously, notifying the handler on completion.
+     * 
+     * @param getSubscriptionPositionRequest The position type and subscription name.
+     * @param asyncHandler Optional callback notified on completion, may be null.
+     * @return A Future for the subscription position.
+     * @see #getSubscriptionPosition(GetSubscriptionPositionRequest)
+     */
+    public Future<SubscriptionPosition> getSubscriptionPositionAsync(
+            final GetSubscriptionPositionRequest getSubscriptionPositionRequest,
+            final AsyncHandler<GetSubscriptionPositionRequest, SubscriptionPosition> asyncHandler) {
+        new CommonUtils().assertParameterNotNull(getSubscriptionPositionRequest,
+                "The get subscription position request parameter must be specified.");
+        String subscriptionName = getSubscriptionPositionRequest.getSubscriptionName();
+        Request request =
+                createSubscriptionPositionRequest(getSubscriptionPositionRequest.getPositionType(),
+                        subscriptionName, PropertiesUtils.getSubscriptionPositionResourcePath());
+
+        return client.executeAsync(request,
+                new SubscriptionPositionResponseHandler(subscriptionName),
+                wrap(getSubscriptionPositionRequest, asyncHandler), createExecutionContext());
+    }
+
+    /**
+     * Get logs asynchronously.
+     * 
+     * @param getLogsRequest The position, limit and subscription name.
+     * @return A Future for the page of logs.
+     * @see #getLogs(GetLogsRequest)
+     */
+    public Future<LogBatch> getLogsAsync(GetLogsRequest getLogsRequest) {
+        return getLogsAsync(getLogsRequest, null);
+    }
+
+    /**
+     * Get logs asynchronously, notifying the handler on completion.
+     * 
+     * @param getLogsRequest The position, limit and subscription name.
+     * @param asyncHandler Optional callback notified on completion, may be null.
+     * @return A Future for the page of logs.
+     * @see #getLogs(GetLogsRequest)
+     */
+    public Future<LogBatch> getLogsAsync(final GetLogsRequest getLogsRequest,
+            final AsyncHandler<GetLogsRequest, LogBatch> asyncHandler) {
+        new CommonUtils().assertParameterNotNull(getLogsRequest,
+                "The get logs request parameter must be specified.");
+        Request request =
+                createGetLogsRequest(getLogsRequest.getPosition(), getLogsRequest.getLimit(),
+                        getLogsRequest.getSubscriptionName(),
+                        PropertiesUtils.getLogsResourcePath());
+
+        return client.executeAsync(request,
+                new LogBatchResponseHandler(getLogsRequest.getSubscriptionName(),
+                        getLogsRequest.getPosition()), wrap(getLogsRequest, asyncHandler),
+                createExecutionContext());
+    }
+
+    /**
+     * Get logs of many subscriptions at once. The requests are sent concurrently on the client's
+     * asynchronous request pool, so the call takes about as long as the slowest subscription when
+     * the pool and the connection pool are large enough for the batch. A failing subscription does
+     * not fail the batch: its error is reported in the result.
+     * <p>
+     * When called from a thread of the client's request pool itself, such as an
+     * {@link AsyncHandler}, the requests are sent one after the other on the calling thread
+     * instead: waiting for other tasks of the bounded pool from one of its threads could deadlock.
+     * 
+     * @param fetchSpecs The subscriptions to read, with their positions and limits. Each
+     *        subscription may only appear once.
+     * @return The page of logs or the error of every subscription.
+     * @throws ClientException If a fetch spec is null, has no subscription name or repeats a
+     *         subscription, or if interrupted while waiting for the results.
+     */
+    public GetLogsBatchResult getLogsBatch(List<FetchSpec> fetchSpecs) throws ClientException {
+        new CommonUtils().assertParameterNotNull(fetchSpecs,
+                "The fetch specs parameter must be specified.");
+        Set<String> subscriptionNames = new HashSet<String>();
+        for (FetchSpec fetchSpec : fetchSpecs) {
+            if (fetchSpec == null) {
+                throw new ClientException("The fetch specs must not contain null elements");
+            }
+            if (fetchSpec.getSubscriptionName() == null) {
+                throw new ClientException("The subscription name of every fetch spec must be "
+                        + "specified");
+            }
+            if (!subscriptionNames.add(fetchSpec.getSubscriptionName())) {
+                throw new ClientException("Subscription " + fetchSpec.getSubscriptionName()
+                        + " appears more than once in the batch");
+            }
+        }
+
+        GetLogsBatchResult result = new GetLogsBatchResult();
+        if (client.isAsyncThread()) {
+            for (FetchSpec fetchSpec : fetchSpecs) {
+                try {
+                    result.addResult(fetchSpec.getSubscriptionName(), getLogs(fetchSpec));
+                } catch (RuntimeException e) {
+                    result.addError(fetchSpec.getSubscriptionName(), toClientException(e));
+                }
+            }
+            return result;
+        }
+
+        List<Future<LogBatch>> futures = new ArrayList<Future<LogBatch>>(fetchSpecs.size());
+        try {
+            for (FetchSpec fetchSpec : fetchSpecs) {
+                try {
+                    futures.add(getLogsAsync(fetchSpec));
+                } catch (RuntimeException e) {
+                    // Invalid parameters; report it with the other per subscription errors
+                    futures.add(null);
+                    result.addError(fetchSpec.getSubscriptionName(), toClientException(e));
+                }
+            }
+            for (int i = 0; i < fetchSpecs.size(); i++) {
+                Future<LogBatch> future = futures.get(i);
+                if (future == null) {
+                    continue;
+                }
+                String subscriptionName = fetchSpecs.get(i).getSubscriptionName();
+                try {
+                    result.addResult(subscriptionName, future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    result.addError(subscriptionName, cause instanceof Exception
+                            ? (Exception) cause : new ClientException(cause.getMessage(), cause));
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Future<LogBatch> future : futures) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted waiting for the batch of logs", e);
+        }
+        return result;
+    }
+
+    /**
+     * Reports invalid parameters of one subscription of a batch, rejected with an
+     * IllegalArgumentException, as a ClientException like the other per subscription errors.
+     */
+    private static Exception toClientException(RuntimeException e) {
+        if (e instanceof IllegalArgumentException) {
+            return new ClientException(e.getMessage(), e);
+        }
+        return e;
+    }
+
+    /**
+     * Adapts a caller's async handler, typed on the original model request, to the low level
+     * client's handler.
+     */
+    private <REQUEST, RESULT> AsyncHandler<Request, RESULT> wrap(final REQUEST originalRequest,
+            final AsyncHandler<REQUEST, RESULT> asyncHandler) {
+        if (asyncHandler == null) {
+            return null;
+        }
+        return new AsyncHandler<Request, RESULT>() {
+            public void onSuccess(Request request, RESULT result) {
+                asyncHandler.onSuccess(originalRequest, result);
+            }
+
+            public void onError(Exception exception) {
+                asyncHandler.onError(exception);
+            }
+        };
+    }
+
     /**
      * Creates and initializes a subscription position request object for the specified streamproxy
      * resource. This method is responsible for determining the right way to address resources.
@@ -157,10 +461,8 @@ public class StreamProxyClient extends DefaultClient implements StreamProxy {
         request.setEncryptContent(encryptContent);
 
         request.addHeader("Content-Type", "application/json");
-        request.addHeader("Host", subscriptionName + ".c.163.com");
+        request.addHeader("Host", getVirtualHost(subscriptionName));
         request.addHeader("User-Agent", PropertiesUtils.getUserAgent());
-        StreamProxySigner streamProxySigner = createSigner();
-        streamProxySigner.sign(request, CredentialsProvider.getCredentials());
 
         return request;
     }
@@ -209,20 +511,78 @@ public class StreamProxyClient extends DefaultClient implements StreamProxy {
         request.setEncryptContent(encryptContent);
 
         request.addHeader("Content-Type", "application/json");
-        request.addHeader("Host", subscriptionName + ".c.163.com");
+        request.addHeader("Host", getVirtualHost(subscriptionName));
         request.addHeader("User-Agent", PropertiesUtils.getUserAgent());
-        StreamProxySigner streamProxySigner = createSigner();
-        streamProxySigner.sign(request, CredentialsProvider.getCredentials());
 
         return request;
     }
 
+    /**
+     * Returns the Host header addressing the specified subscription.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return The Host header of the subscription.
+     */
+    private String getVirtualHost(String subscriptionName) {
+        return subscriptionName + ".c.163.com";
+    }
+
+    /**
+     * Returns the usage of the connections to the streamproxy endpoint: the connections leased by
+     * requests, the idle connections kept for reuse and the requests waiting for a connection.
+     * 
+     * @return A snapshot of the endpoint connection usage.
+     */
+    public PoolStats getConnectionPoolStats() {
+        return client.getPoolStats(endpoint);
+    }
+
+    /**
+     * Returns the usage of the connection budget of the specified subscription, limited by
+     * {@link ClientConfiguration#getMaxConnectionsPerHost()}: the requests in flight and the
+     * requests waiting for the budget.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return A snapshot of the subscription connection usage.
+     */
+    public PoolStats getConnectionPoolStats(String subscriptionName) {
+        new CommonUtils().assertParameterNotNull(subscriptionName,
+                "The subscription name parameter must be specified.");
+        return client.getHostStats(getVirtualHost(subscriptionName));
+    }
+
+    /**
+     * Returns the signer shared by all requests of this client. Signers are thread-safe and keep
+     * per-credential state (sanitized credentials, initialized Macs) that is only worth having if
+     * the signer is reused.
+     * 
+     * @return The signer of this client.
+     */
+    private StreamProxySigner getSigner() {
+        StreamProxySigner streamProxySigner = signer;
+        if (streamProxySigner == null) {
+            streamProxySigner = createSigner();
+            signer = streamProxySigner;
+        }
+        return streamProxySigner;
+    }
+
+    /**
+     * Returns the context the low level client signs the request with, on the thread sending it and
+     * right before every attempt.
+     * 
+     * @return A new execution context.
+     */
+    private ExecutionContext createExecutionContext() {
+        return new ExecutionContext(getSigner(), CredentialsProvider);
+    }
+
     protected StreamProxySigner createSigner() {
         return new StreamProxySigner();
     }
 
     /**
-     * encrypt body data.
+     * encrypt body data. The body is hashed in UTF-8, the same encoding it is sent in.
      * 
      * @param text which needed to encrypt.
      * @return String encrypt body data.
@@ -230,11 +590,9 @@ public class StreamProxyClient extends DefaultClient implements StreamProxy {
     private String createEncryptText(String text) {
         String encryptText = null;
         try {
-            encryptText = Md5Utils.getHex(Md5Utils.computeMD5Hash(text.toString().getBytes()));
+            encryptText = Md5Utils.computeMD5Hex(text);
         } catch (NoSuchAlgorithmException e) {
             throw new ClientException("create encrypt text error " + e.getMessage(), e);
-        } catch (IOException e) {
-            throw new ClientException("create encrypt text error " + e.getMessage(), e);
         }
         return encryptText;
     }
@@ -1,6 +1,10 @@
 package com.netease.cloud.config;
 
+import com.netease.cloud.http.ApacheHttpTransport;
+import com.netease.cloud.http.HttpTransportFactory;
 import com.netease.cloud.http.Protocol;
+import com.netease.cloud.metrics.MetricsCollector;
+import com.netease.cloud.retry.RetryPolicy;
 import com.netease.cloud.util.PropertiesUtils;
 
 /**
@@ -14,6 +18,15 @@ public class ClientConfiguration {
     /** The default max connection pool size. */
     public static final int DEFAULT_MAX_CONNECTIONS = 50;
 
+    /** The default time (in milliseconds) a pooled connection may stay idle. */
+    public static final long DEFAULT_CONNECTION_IDLE_TIMEOUT = 60 * 1000;
+
+    /** The default fraction of calls whose request and response are logged. */
+    public static final double DEFAULT_REQUEST_LOG_SAMPLE_RATE = 1.0;
+
+    /** The default maximum number of characters of a body that are logged. */
+    public static final int DEFAULT_MAX_LOGGED_CONTENT_LENGTH = 1024;
+
     /** The default HTTP user agent header for Java SDK clients. */
     public static final String DEFAULT_USER_AGENT = PropertiesUtils.getUserAgent();
 
@@ -57,6 +70,65 @@ public class ClientConfiguration {
      */
     private int socketReceiveBufferSizeHint = 0;
 
+    /**
+     * The number of threads executing asynchronous requests. A value of 0 means one thread per
+     * allowed open HTTP connection.
+     */
+    private int asyncThreadPoolSize = 0;
+
+    /**
+     * The maximum number of open HTTP connections to one endpoint, or 0 for the overall maximum.
+     */
+    private int maxConnectionsPerRoute;
+
+    /** The maximum number of concurrent requests for one Host header, or 0 for no limit. */
+    private int maxConnectionsPerHost;
+
+    /** The time (in milliseconds) a pooled connection may stay idle before it is closed. */
+    private long connectionIdleTimeout = DEFAULT_CONNECTION_IDLE_TIMEOUT;
+
+    /**
+     * The time (in milliseconds) between passes of the idle connection reaper, or 0 for half the
+     * idle timeout.
+     */
+    private long connectionReapInterval;
+
+    /** The maximum lifetime (in milliseconds) of a pooled connection, or 0 for no limit. */
+    private long connectionTTL;
+
+    /** The policy deciding whether and when failed requests are retried, or null for none. */
+    private RetryPolicy retryPolicy;
+
+    /** The maximum rate of requests sent by the client, or 0 for no limit. */
+    private double maxRequestsPerSecond;
+
+    /** The maximum rate of requests for one subscription (Host header), or 0 for no limit. */
+    private double maxRequestsPerSecondPerHost;
+
+    /** The maximum rate of requests signed with one access key, or 0 for no limit. */
+    private double maxRequestsPerSecondPerCredential;
+
+    /** Whether the number of requests in flight adapts to throttling responses and latency. */
+    private boolean adaptiveConcurrency;
+
+    /** Creates the transport sending the requests of the client. */
+    private HttpTransportFactory transportFactory = ApacheHttpTransport.FACTORY;
+
+    /** Whether the client asks for gzip or deflate compressed responses. */
+    private boolean responseCompression;
+
+    /** Receives the request metrics of the client, or null to collect none. */
+    private MetricsCollector metricsCollector;
+
+    /** The fraction of calls whose request and response are logged at DEBUG level. */
+    private double requestLogSampleRate = DEFAULT_REQUEST_LOG_SAMPLE_RATE;
+
+    /** The maximum number of characters of a request or response body that are logged. */
+    private int maxLoggedContentLength = DEFAULT_MAX_LOGGED_CONTENT_LENGTH;
+
+    /** Whether asynchronous requests run on virtual threads instead of the request thread pool. */
+    private boolean virtualThreads;
+
     public ClientConfiguration() {}
 
     public ClientConfiguration(ClientConfiguration other) {
@@ -67,6 +139,23 @@ public class ClientConfiguration {
         this.userAgent = other.userAgent;
         this.socketReceiveBufferSizeHint = other.socketReceiveBufferSizeHint;
         this.socketSendBufferSizeHint = other.socketSendBufferSizeHint;
+        this.asyncThreadPoolSize = other.asyncThreadPoolSize;
+        this.maxConnectionsPerRoute = other.maxConnectionsPerRoute;
+        this.maxConnectionsPerHost = other.maxConnectionsPerHost;
+        this.connectionIdleTimeout = other.connectionIdleTimeout;
+        this.connectionReapInterval = other.connectionReapInterval;
+        this.connectionTTL = other.connectionTTL;
+        this.retryPolicy = other.retryPolicy;
+        this.maxRequestsPerSecond = other.maxRequestsPerSecond;
+        this.maxRequestsPerSecondPerHost = other.maxRequestsPerSecondPerHost;
+        this.maxRequestsPerSecondPerCredential = other.maxRequestsPerSecondPerCredential;
+        this.adaptiveConcurrency = other.adaptiveConcurrency;
+        this.transportFactory = other.transportFactory;
+        this.responseCompression = other.responseCompression;
+        this.metricsCollector = other.metricsCollector;
+        this.requestLogSampleRate = other.requestLogSampleRate;
+        this.maxLoggedContentLength = other.maxLoggedContentLength;
+        this.virtualThreads = other.virtualThreads;
     }
 
     /**
@@ -359,4 +448,669 @@ public class ClientConfiguration {
         return this;
     }
 
+    /**
+     * Returns the number of threads executing asynchronous requests.
+     * <p>
+     * A value of 0 (the default) sizes the pool to the maximum number of open HTTP connections,
+     * since additional threads would only wait for a pooled connection.
+     * 
+     * @return The number of threads executing asynchronous requests.
+     */
+    public int getAsyncThreadPoolSize() {
+        return asyncThreadPoolSize;
+    }
+
+    /**
+     * Sets the number of threads executing asynchronous requests.
+     * <p>
+     * A value of 0 (the default) sizes the pool to the maximum number of open HTTP connections,
+     * since additional threads would only wait for a pooled connection.
+     * 
+     * @param asyncThreadPoolSize The number of threads executing asynchronous requests, or 0 to use
+     *        the maximum number of open HTTP connections.
+     */
+    public void setAsyncThreadPoolSize(int asyncThreadPoolSize) {
+        this.asyncThreadPoolSize = asyncThreadPoolSize;
+    }
+
+    /**
+     * Sets the number of threads executing asynchronous requests, and returns the updated
+     * ClientConfiguration object.
+     * 
+     * @param asyncThreadPoolSize The number of threads executing asynchronous requests, or 0 to use
+     *        the maximum number of open HTTP connections.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withAsyncThreadPoolSize(int asyncThreadPoolSize) {
+        setAsyncThreadPoolSize(asyncThreadPoolSize);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of open HTTP connections to one endpoint.
+     * <p>
+     * A value of 0 (the default) allows each endpoint to use up to the maximum number of open HTTP
+     * connections.
+     * 
+     * @return The maximum number of open HTTP connections to one endpoint.
+     */
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Sets the maximum number of open HTTP connections to one endpoint.
+     * <p>
+     * A value of 0 (the default) allows each endpoint to use up to the maximum number of open HTTP
+     * connections.
+     * 
+     * @param maxConnectionsPerRoute The maximum number of open HTTP connections to one endpoint, or
+     *        0 to use the overall maximum.
+     */
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    /**
+     * Sets the maximum number of open HTTP connections to one endpoint, and returns the updated
+     * ClientConfiguration object.
+     * 
+     * @param maxConnectionsPerRoute The maximum number of open HTTP connections to one endpoint, or
+     *        0 to use the overall maximum.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        setMaxConnectionsPerRoute(maxConnectionsPerRoute);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of requests that may be in flight at once for one Host header.
+     * <p>
+     * All subscriptions are served by one endpoint and only differ in their Host header, so this is
+     * the connection budget of a single subscription. It keeps one busy subscription from holding
+     * every pooled connection. A value of 0 (the default) disables the limit.
+     * 
+     * @return The maximum number of requests that may be in flight at once for one Host header.
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of requests that may be in flight at once for one Host header.
+     * <p>
+     * All subscriptions are served by one endpoint and only differ in their Host header, so this is
+     * the connection budget of a single subscription. It keeps one busy subscription from holding
+     * every pooled connection. A value of 0 (the default) disables the limit.
+     * 
+     * @param maxConnectionsPerHost The maximum number of concurrent requests for one Host header,
+     *        or 0 for no limit.
+     */
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of requests that may be in flight at once for one Host header, and
+     * returns the updated ClientConfiguration object.
+     * 
+     * @param maxConnectionsPerHost The maximum number of concurrent requests for one Host header,
+     *        or 0 for no limit.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        setMaxConnectionsPerHost(maxConnectionsPerHost);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) a pooled connection may stay idle before the idle
+     * connection reaper closes it.
+     * <p>
+     * Servers and load balancers close connections that have been idle for a while; closing them on
+     * the client side first avoids a failed request on a connection that is already dead. A value
+     * of 0 or less disables idle connection reaping.
+     * 
+     * @return The time (in milliseconds) a pooled connection may stay idle before the idle
+     *         connection reaper closes it.
+     */
+    public long getConnectionIdleTimeout() {
+        return connectionIdleTimeout;
+    }
+
+    /**
+     * Sets the time (in milliseconds) a pooled connection may stay idle before the idle connection
+     * reaper closes it.
+     * <p>
+     * Servers and load balancers close connections that have been idle for a while; closing them on
+     * the client side first avoids a failed request on a connection that is already dead. A value
+     * of 0 or less disables idle connection reaping.
+     * 
+     * @param connectionIdleTimeout The maximum idle time (in milliseconds) of a pooled connection,
+     *        or 0 to keep idle connections open.
+     */
+    public void setConnectionIdleTimeout(long connectionIdleTimeout) {
+        this.connectionIdleTimeout = connectionIdleTimeout;
+    }
+
+    /**
+     * Sets the time (in milliseconds) a pooled connection may stay idle before the idle connection
+     * reaper closes it, and returns the updated ClientConfiguration object.
+     * 
+     * @param connectionIdleTimeout The maximum idle time (in milliseconds) of a pooled connection,
+     *        or 0 to keep idle connections open.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withConnectionIdleTimeout(long connectionIdleTimeout) {
+        setConnectionIdleTimeout(connectionIdleTimeout);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) between two passes of the idle connection reaper over the
+     * connection pool.
+     * <p>
+     * A value of 0 (the default) reaps at half the connection idle timeout, so no connection stays
+     * open for more than one and a half times the idle timeout.
+     * 
+     * @return The time (in milliseconds) between two passes of the idle connection reaper over the
+     *         connection pool.
+     */
+    public long getConnectionReapInterval() {
+        return connectionReapInterval;
+    }
+
+    /**
+     * Sets the time (in milliseconds) between two passes of the idle connection reaper over the
+     * connection pool.
+     * <p>
+     * A value of 0 (the default) reaps at half the connection idle timeout, so no connection stays
+     * open for more than one and a half times the idle timeout.
+     * 
+     * @param connectionReapInterval The time (in milliseconds) between reaper passes, or 0 for half
+     *        the idle timeout.
+     */
+    public void setConnectionReapInterval(long connectionReapInterval) {
+        this.connectionReapInterval = connectionReapInterval;
+    }
+
+    /**
+     * Sets the time (in milliseconds) between two passes of the idle connection reaper over the
+     * connection pool, and returns the updated ClientConfiguration object.
+     * 
+     * @param connectionReapInterval The time (in milliseconds) between reaper passes, or 0 for half
+     *        the idle timeout.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withConnectionReapInterval(long connectionReapInterval) {
+        setConnectionReapInterval(connectionReapInterval);
+        return this;
+    }
+
+    /**
+     * Returns the maximum lifetime (in milliseconds) of a pooled connection.
+     * <p>
+     * Connections older than this are not reused and are closed by the idle connection reaper, so
+     * that the pool picks up DNS and load balancer changes. A value of 0 (the default) sets no
+     * limit.
+     * 
+     * @return The maximum lifetime (in milliseconds) of a pooled connection.
+     */
+    public long getConnectionTTL() {
+        return connectionTTL;
+    }
+
+    /**
+     * Sets the maximum lifetime (in milliseconds) of a pooled connection.
+     * <p>
+     * Connections older than this are not reused and are closed by the idle connection reaper, so
+     * that the pool picks up DNS and load balancer changes. A value of 0 (the default) sets no
+     * limit.
+     * 
+     * @param connectionTTL The maximum lifetime (in milliseconds) of a pooled connection, or 0 for
+     *        no limit.
+     */
+    public void setConnectionTTL(long connectionTTL) {
+        this.connectionTTL = connectionTTL;
+    }
+
+    /**
+     * Sets the maximum lifetime (in milliseconds) of a pooled connection, and returns the updated
+     * ClientConfiguration object.
+     * 
+     * @param connectionTTL The maximum lifetime (in milliseconds) of a pooled connection, or 0 for
+     *        no limit.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withConnectionTTL(long connectionTTL) {
+        setConnectionTTL(connectionTTL);
+        return this;
+    }
+
+    /**
+     * Returns the policy deciding whether and when failed requests are retried.
+     * <p>
+     * Retried requests are signed again before every attempt. By default no retry policy is set and
+     * every request is attempted once; {@code new RetryPolicy()} retries a request up to three
+     * times on I/O errors, throttling and 5xx responses.
+     * 
+     * @return The policy deciding whether and when failed requests are retried, or null if
+     *         requests are not retried.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the policy deciding whether and when failed requests are retried.
+     * <p>
+     * Retried requests are signed again before every attempt. By default no retry policy is set and
+     * every request is attempted once.
+     * 
+     * @param retryPolicy The retry policy, or null to not retry requests.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Sets the policy deciding whether and when failed requests are retried, and returns the
+     * updated ClientConfiguration object.
+     * 
+     * @param retryPolicy The retry policy.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withRetryPolicy(RetryPolicy retryPolicy) {
+        setRetryPolicy(retryPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of requests per second sent by this client.
+     * <p>
+     * Requests above the rate wait for their turn, so a burst is smoothed out instead of rejected.
+     * The client may send up to one second worth of requests at once after being idle. A value of 0
+     * (the default) disables the limit.
+     * 
+     * @return The maximum number of requests per second sent by this client.
+     */
+    public double getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    /**
+     * Sets the maximum number of requests per second sent by this client.
+     * <p>
+     * Requests above the rate wait for their turn, so a burst is smoothed out instead of rejected.
+     * The client may send up to one second worth of requests at once after being idle. A value of 0
+     * (the default) disables the limit.
+     * 
+     * @param maxRequestsPerSecond The maximum request rate, or 0 for no limit.
+     */
+    public void setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+    }
+
+    /**
+     * Sets the maximum number of requests per second sent by this client, and returns the updated
+     * ClientConfiguration object.
+     * 
+     * @param maxRequestsPerSecond The maximum request rate, or 0 for no limit.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withMaxRequestsPerSecond(double maxRequestsPerSecond) {
+        setMaxRequestsPerSecond(maxRequestsPerSecond);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of requests per second sent for one subscription (Host header).
+     * <p>
+     * A value of 0 (the default) disables the limit.
+     * 
+     * @return The maximum number of requests per second sent for one subscription (Host header).
+     */
+    public double getMaxRequestsPerSecondPerHost() {
+        return maxRequestsPerSecondPerHost;
+    }
+
+    /**
+     * Sets the maximum number of requests per second sent for one subscription (Host header).
+     * <p>
+     * A value of 0 (the default) disables the limit.
+     * 
+     * @param maxRequestsPerSecondPerHost The maximum request rate of one subscription, or 0 for no
+     *        limit.
+     */
+    public void setMaxRequestsPerSecondPerHost(double maxRequestsPerSecondPerHost) {
+        this.maxRequestsPerSecondPerHost = maxRequestsPerSecondPerHost;
+    }
+
+    /**
+     * Sets the maximum number of requests per second sent for one subscription (Host header), and
+     * returns the updated ClientConfiguration object.
+     * 
+     * @param maxRequestsPerSecondPerHost The maximum request rate of one subscription, or 0 for no
+     *        limit.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withMaxRequestsPerSecondPerHost(double maxRequestsPerSecondPerHost) {
+        setMaxRequestsPerSecondPerHost(maxRequestsPerSecondPerHost);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of requests per second signed with one access key.
+     * <p>
+     * A value of 0 (the default) disables the limit.
+     * 
+     * @return The maximum number of requests per second signed with one access key.
+     */
+    public double getMaxRequestsPerSecondPerCredential() {
+        return maxRequestsPerSecondPerCredential;
+    }
+
+    /**
+     * Sets the maximum number of requests per second signed with one access key.
+     * <p>
+     * A value of 0 (the default) disables the limit.
+     * 
+     * @param maxRequestsPerSecondPerCredential The maximum request rate of one access key, or 0 for
+     *        no limit.
+     */
+    public void setMaxRequestsPerSecondPerCredential(double maxRequestsPerSecondPerCredential) {
+        this.maxRequestsPerSecondPerCredential = maxRequestsPerSecondPerCredential;
+    }
+
+    /**
+     * Sets the maximum number of requests per second signed with one access key, and returns the
+     * updated ClientConfiguration object.
+     * 
+     * @param maxRequestsPerSecondPerCredential The maximum request rate of one access key, or 0 for
+     *        no limit.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withMaxRequestsPerSecondPerCredential(
+            double maxRequestsPerSecondPerCredential) {
+        setMaxRequestsPerSecondPerCredential(maxRequestsPerSecondPerCredential);
+        return this;
+    }
+
+    /**
+     * Returns whether the number of requests in flight adapts to the load of the endpoint.
+     * <p>
+     * If enabled, the client starts with half of the maximum connections in flight, adds about one
+     * per round-trip while requests complete quickly, and halves the limit on 429 and 503
+     * responses, failed requests and latency increases.
+     * 
+     * @return Whether the number of requests in flight adapts to the load of the endpoint.
+     */
+    public boolean isAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    /**
+     * Sets whether the number of requests in flight adapts to the load of the endpoint.
+     * <p>
+     * If enabled, the client starts with half of the maximum connections in flight, adds about one
+     * per round-trip while requests complete quickly, and halves the limit on 429 and 503
+     * responses, failed requests and latency increases.
+     * 
+     * @param adaptiveConcurrency Whether to adapt the number of requests in flight.
+     */
+    public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    /**
+     * Sets whether the number of requests in flight adapts to the load of the endpoint, and returns
+     * the updated ClientConfiguration object.
+     * 
+     * @param adaptiveConcurrency Whether to adapt the number of requests in flight.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withAdaptiveConcurrency(boolean adaptiveConcurrency) {
+        setAdaptiveConcurrency(adaptiveConcurrency);
+        return this;
+    }
+
+    /**
+     * Returns the factory creating the transport that sends the requests of this client.
+     * <p>
+     * Retries, signing and throttling are done by the client whatever the transport. The default
+     * transport sends every request on a pooled HTTP/1.1 connection of an Apache HttpClient; a
+     * transport multiplexing requests over fewer connections can be plugged in for consumers
+     * reading many subscriptions at once.
+     * 
+     * @return The factory creating the transport that sends the requests of this client.
+     */
+    public HttpTransportFactory getTransportFactory() {
+        return transportFactory;
+    }
+
+    /**
+     * Sets the factory creating the transport that sends the requests of this client.
+     * <p>
+     * Retries, signing and throttling are done by the client whatever the transport. The default
+     * transport sends every request on a pooled HTTP/1.1 connection of an Apache HttpClient; a
+     * transport multiplexing requests over fewer connections can be plugged in for consumers
+     * reading many subscriptions at once.
+     * 
+     * @param transportFactory The transport factory.
+     */
+    public void setTransportFactory(HttpTransportFactory transportFactory) {
+        this.transportFactory = transportFactory;
+    }
+
+    /**
+     * Sets the factory creating the transport that sends the requests of this client, and returns
+     * the updated ClientConfiguration object.
+     * 
+     * @param transportFactory The transport factory.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withTransportFactory(HttpTransportFactory transportFactory) {
+        setTransportFactory(transportFactory);
+        return this;
+    }
+
+    /**
+     * Returns whether this client asks the service to compress responses.
+     * <p>
+     * When enabled, requests are sent with an Accept-Encoding: gzip, deflate header and compressed
+     * responses are inflated as they are decoded, trading some CPU for much less bandwidth on log
+     * payloads. Disabled by default.
+     * 
+     * @return Whether this client asks the service to compress responses.
+     */
+    public boolean isResponseCompression() {
+        return responseCompression;
+    }
+
+    /**
+     * Sets whether this client asks the service to compress responses.
+     * <p>
+     * When enabled, requests are sent with an Accept-Encoding: gzip, deflate header and compressed
+     * responses are inflated as they are decoded, trading some CPU for much less bandwidth on log
+     * payloads. Disabled by default.
+     * 
+     * @param responseCompression True to ask for compressed responses.
+     */
+    public void setResponseCompression(boolean responseCompression) {
+        this.responseCompression = responseCompression;
+    }
+
+    /**
+     * Sets whether this client asks the service to compress responses, and returns the updated
+     * ClientConfiguration object.
+     * 
+     * @param responseCompression True to ask for compressed responses.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withResponseCompression(boolean responseCompression) {
+        setResponseCompression(responseCompression);
+        return this;
+    }
+
+    /**
+     * Returns the collector receiving the metrics of the requests of this client, such as counts,
+     * bytes and latency histograms per operation and subscription.
+     * <p>
+     * Null by default, in which case no metrics are collected and requests pay no bookkeeping cost.
+     * Use a DefaultMetricsCollector to keep the metrics in memory and export them over JMX with a
+     * JmxMetricsExporter.
+     * 
+     * @return The collector receiving the metrics of the requests of this client, such as counts,
+     *         bytes and latency histograms per operation and subscription.
+     */
+    public MetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
+
+    /**
+     * Sets the collector receiving the metrics of the requests of this client, such as counts,
+     * bytes and latency histograms per operation and subscription.
+     * <p>
+     * Null by default, in which case no metrics are collected and requests pay no bookkeeping cost.
+     * Use a DefaultMetricsCollector to keep the metrics in memory and export them over JMX with a
+     * JmxMetricsExporter.
+     * 
+     * @param metricsCollector The metrics collector, or null to collect no metrics.
+     */
+    public void setMetricsCollector(MetricsCollector metricsCollector) {
+        this.metricsCollector = metricsCollector;
+    }
+
+    /**
+     * Sets the collector receiving the metrics of the requests of this client, such as counts,
+     * bytes and latency histograms per operation and subscription, and returns the updated
+     * ClientConfiguration object.
+     * 
+     * @param metricsCollector The metrics collector, or null to collect no metrics.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withMetricsCollector(MetricsCollector metricsCollector) {
+        setMetricsCollector(metricsCollector);
+        return this;
+    }
+
+    /**
+     * Returns the fraction of calls whose request and response are logged.
+     * <p>
+     * Requests and responses are logged at DEBUG level, and only when DEBUG is enabled for the
+     * client's logger; nothing is built otherwise. Between 0 (never) and 1 (every call, the
+     * default); sampled calls are spread evenly so that a rate of 0.01 logs one call in a hundred.
+     * 
+     * @return The fraction of calls whose request and response are logged.
+     */
+    public double getRequestLogSampleRate() {
+        return requestLogSampleRate;
+    }
+
+    /**
+     * Sets the fraction of calls whose request and response are logged.
+     * <p>
+     * Requests and responses are logged at DEBUG level, and only when DEBUG is enabled for the
+     * client's logger; nothing is built otherwise. Between 0 (never) and 1 (every call, the
+     * default); sampled calls are spread evenly so that a rate of 0.01 logs one call in a hundred.
+     * 
+     * @param requestLogSampleRate The fraction of calls logged, between 0 and 1.
+     */
+    public void setRequestLogSampleRate(double requestLogSampleRate) {
+        this.requestLogSampleRate = requestLogSampleRate;
+    }
+
+    /**
+     * Sets the fraction of calls whose request and response are logged, and returns the updated
+     * ClientConfiguration object.
+     * 
+     * @param requestLogSampleRate The fraction of calls logged, between 0 and 1.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withRequestLogSampleRate(double requestLogSampleRate) {
+        setRequestLogSampleRate(requestLogSampleRate);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of characters of a request or response body that are logged.
+     * <p>
+     * Longer bodies are truncated, and their length noted, so that logging a call never copies a
+     * whole log batch. Defaults to 1024.
+     * 
+     * @return The maximum number of characters of a request or response body that are logged.
+     */
+    public int getMaxLoggedContentLength() {
+        return maxLoggedContentLength;
+    }
+
+    /**
+     * Sets the maximum number of characters of a request or response body that are logged.
+     * <p>
+     * Longer bodies are truncated, and their length noted, so that logging a call never copies a
+     * whole log batch. Defaults to 1024.
+     * 
+     * @param maxLoggedContentLength The maximum number of characters logged per body, or 0 to log
+     *        no bodies.
+     */
+    public void setMaxLoggedContentLength(int maxLoggedContentLength) {
+        this.maxLoggedContentLength = maxLoggedContentLength;
+    }
+
+    /**
+     * Sets the maximum number of characters of a request or response body that are logged, and
+     * returns the updated ClientConfiguration object.
+     * 
+     * @param maxLoggedContentLength The maximum number of characters logged per body, or 0 to log
+     *        no bodies.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withMaxLoggedContentLength(int maxLoggedContentLength) {
+        setMaxLoggedContentLength(maxLoggedContentLength);
+        return this;
+    }
+
+    /**
+     * Returns whether asynchronous requests run on virtual threads.
+     * <p>
+     * When enabled on JDK 21 or later, every asynchronous request runs on its own virtual thread
+     * instead of a thread of the pool sized by the async thread pool size, so thousands of requests
+     * may block at once without holding a platform thread each. The requests in flight are still
+     * bounded by the connection pool and the per Host limits. On older runtimes the option is
+     * ignored. Disabled by default.
+     * 
+     * @return Whether asynchronous requests run on virtual threads.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Sets whether asynchronous requests run on virtual threads.
+     * <p>
+     * When enabled on JDK 21 or later, every asynchronous request runs on its own virtual thread
+     * instead of a thread of the pool sized by the async thread pool size, so thousands of requests
+     * may block at once without holding a platform thread each. The requests in flight are still
+     * bounded by the connection pool and the per Host limits. On older runtimes the option is
+     * ignored. Disabled by default.
+     * 
+     * @param virtualThreads True to run asynchronous requests on virtual threads.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Sets whether asynchronous requests run on virtual threads, and returns the updated
+     * ClientConfiguration object.
+     * 
+     * @param virtualThreads True to run asynchronous requests on virtual threads.
+     * @return The updated ClientConfiguration object.
+     */
+    public ClientConfiguration withVirtualThreads(boolean virtualThreads) {
+        setVirtualThreads(virtualThreads);
+        return this;
+    }
+
 }
@@ -0,0 +1,38 @@
+package com.netease.cloud.consumer;
+
+/**
+ * Stores the committed position of each subscription so that a consumer can resume where it left
+ * off after a restart.
+ * <p>
+ * Implementations must be thread-safe; one store may be shared by many consumers.
+ */
+public interface CheckpointStore {
+
+    /**
+     * Returns the last committed position of the subscription.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return The last committed position, or null if none was committed.
+     */
+    public String getCheckpoint(String subscriptionName);
+
+    /**
+     * Commits a position of the subscription. Implementations may make the position durable
+     * asynchronously; call {@link #flush()} to wait for durability.
+     * 
+     * @param subscriptionName The subscription name.
+     * @param position The position to commit.
+     */
+    public void checkpoint(String subscriptionName, String position);
+
+    /**
+     * Makes all committed positions durable.
+     */
+    public void flush();
+
+    /**
+     * Flushes and releases any resources held by this store.
+     */
+    public void close();
+
+}
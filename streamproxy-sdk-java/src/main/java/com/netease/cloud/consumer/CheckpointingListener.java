@@ -0,0 +1,15 @@
+package com.netease.cloud.consumer;
+
+/**
+ * A {@link SubscriptionListener} that commits the positions of the pages it receives itself, once
+ * their logs are actually processed, rather than when
+ * {@link #onLogs(String, java.util.List, String)} returns.
+ * <p>
+ * {@link SubscriptionConsumer} and {@link SubscriptionScheduler} still resume from the configured
+ * {@link CheckpointStore}, but leave committing to such a listener.
+ * 
+ * @see ParallelRecordProcessor
+ */
+public interface CheckpointingListener extends SubscriptionListener {
+
+}
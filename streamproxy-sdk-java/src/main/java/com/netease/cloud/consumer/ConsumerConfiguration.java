@@ -0,0 +1,510 @@
+package com.netease.cloud.consumer;
+
+/**
+ * Consumer configuration options such as the start position, page size and polling intervals.
+ */
+public class ConsumerConfiguration {
+
+    /** The default position type used when no explicit start position is given. */
+    public static final String DEFAULT_POSITION_TYPE = "EARLIEST";
+
+    /** The default number of logs requested per page. */
+    public static final long DEFAULT_LIMIT = 100;
+
+    /** The default time (in milliseconds) to wait before polling again after an empty page. */
+    public static final long DEFAULT_IDLE_INTERVAL = 1000;
+
+    /** The default time (in milliseconds) to wait before retrying after a failed fetch. */
+    public static final long DEFAULT_ERROR_BACKOFF = 1000;
+
+    /** The default maximum time (in milliseconds) a scheduled subscription waits between polls. */
+    public static final long DEFAULT_MAX_BACKOFF = 30 * 1000;
+
+    /** The default number of worker threads of a SubscriptionScheduler. */
+    public static final int DEFAULT_SCHEDULER_THREADS = 4;
+
+    /** The default number of logs queued for each worker thread of a ParallelRecordProcessor. */
+    public static final int DEFAULT_PIPELINE_QUEUE_CAPACITY = 1000;
+
+    /** The position type used to look up the start position of the subscription. */
+    private String positionType = DEFAULT_POSITION_TYPE;
+
+    /**
+     * An explicit position to start consuming from. If set, the position type is ignored and no
+     * subscription position request is made.
+     */
+    private String initialPosition;
+
+    /** The maximum number of logs requested per page. */
+    private long limit = DEFAULT_LIMIT;
+
+    /** The time (in milliseconds) to wait before polling again after an empty page. */
+    private long idleInterval = DEFAULT_IDLE_INTERVAL;
+
+    /** The time (in milliseconds) to wait before retrying after a failed fetch. */
+    private long errorBackoff = DEFAULT_ERROR_BACKOFF;
+
+    /** The store the consumed position is committed to, or null to not commit positions. */
+    private CheckpointStore checkpointStore;
+
+    /** The maximum time (in milliseconds) a scheduled subscription waits between polls. */
+    private long maxBackoff = DEFAULT_MAX_BACKOFF;
+
+    /** The number of worker threads of a SubscriptionScheduler. */
+    private int schedulerThreads = DEFAULT_SCHEDULER_THREADS;
+
+    /**
+     * The maximum number of concurrent requests of a SubscriptionScheduler, or 0 for one per worker
+     * thread.
+     */
+    private int maxInFlightRequests;
+
+    /**
+     * The number of worker threads of a ParallelRecordProcessor, or 0 for one per available
+     * processor.
+     */
+    private int pipelineThreads;
+
+    /** The number of logs queued for each worker thread of a ParallelRecordProcessor. */
+    private int pipelineQueueCapacity = DEFAULT_PIPELINE_QUEUE_CAPACITY;
+
+    /** Whether a SubscriptionConsumer runs its loop on a virtual thread. */
+    private boolean virtualThreads;
+
+    public ConsumerConfiguration() {}
+
+    public ConsumerConfiguration(ConsumerConfiguration other) {
+        this.positionType = other.positionType;
+        this.initialPosition = other.initialPosition;
+        this.limit = other.limit;
+        this.idleInterval = other.idleInterval;
+        this.errorBackoff = other.errorBackoff;
+        this.checkpointStore = other.checkpointStore;
+        this.maxBackoff = other.maxBackoff;
+        this.schedulerThreads = other.schedulerThreads;
+        this.maxInFlightRequests = other.maxInFlightRequests;
+        this.pipelineThreads = other.pipelineThreads;
+        this.pipelineQueueCapacity = other.pipelineQueueCapacity;
+        this.virtualThreads = other.virtualThreads;
+    }
+
+    /**
+     * Returns the position type (ex: EARLIEST) used to look up the start position.
+     * 
+     * @return The position type used to look up the start position.
+     */
+    public String getPositionType() {
+        return positionType;
+    }
+
+    /**
+     * Sets the position type (ex: EARLIEST) used to look up the start position.
+     * 
+     * @param positionType The position type used to look up the start position.
+     */
+    public void setPositionType(String positionType) {
+        this.positionType = positionType;
+    }
+
+    /**
+     * Sets the position type used to look up the start position, and returns the updated
+     * ConsumerConfiguration object.
+     * 
+     * @param positionType The position type used to look up the start position.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withPositionType(String positionType) {
+        setPositionType(positionType);
+        return this;
+    }
+
+    /**
+     * Returns the explicit position to start consuming from, or null if the start position is
+     * looked up by position type.
+     * 
+     * @return The explicit start position, or null.
+     */
+    public String getInitialPosition() {
+        return initialPosition;
+    }
+
+    /**
+     * Sets an explicit position to start consuming from.
+     * 
+     * @param initialPosition The explicit start position.
+     */
+    public void setInitialPosition(String initialPosition) {
+        this.initialPosition = initialPosition;
+    }
+
+    /**
+     * Sets an explicit position to start consuming from, and returns the updated
+     * ConsumerConfiguration object.
+     * 
+     * @param initialPosition The explicit start position.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withInitialPosition(String initialPosition) {
+        setInitialPosition(initialPosition);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of logs requested per page.
+     * 
+     * @return The maximum number of logs requested per page.
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of logs requested per page.
+     * 
+     * @param limit The maximum number of logs requested per page.
+     */
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Sets the maximum number of logs requested per page, and returns the updated
+     * ConsumerConfiguration object.
+     * 
+     * @param limit The maximum number of logs requested per page.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withLimit(long limit) {
+        setLimit(limit);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) to wait before polling again after an empty page.
+     * 
+     * @return The time (in milliseconds) to wait before polling again after an empty page.
+     */
+    public long getIdleInterval() {
+        return idleInterval;
+    }
+
+    /**
+     * Sets the time (in milliseconds) to wait before polling again after an empty page.
+     * 
+     * @param idleInterval The time (in milliseconds) to wait after an empty page.
+     */
+    public void setIdleInterval(long idleInterval) {
+        this.idleInterval = idleInterval;
+    }
+
+    /**
+     * Sets the time (in milliseconds) to wait before polling again after an empty page, and
+     * returns the updated ConsumerConfiguration object.
+     * 
+     * @param idleInterval The time (in milliseconds) to wait after an empty page.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withIdleInterval(long idleInterval) {
+        setIdleInterval(idleInterval);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) to wait before retrying after a failed fetch.
+     * 
+     * @return The time (in milliseconds) to wait before retrying after a failed fetch.
+     */
+    public long getErrorBackoff() {
+        return errorBackoff;
+    }
+
+    /**
+     * Sets the time (in milliseconds) to wait before retrying after a failed fetch.
+     * 
+     * @param errorBackoff The time (in milliseconds) to wait after a failed fetch.
+     */
+    public void setErrorBackoff(long errorBackoff) {
+        this.errorBackoff = errorBackoff;
+    }
+
+    /**
+     * Sets the time (in milliseconds) to wait before retrying after a failed fetch, and returns the
+     * updated ConsumerConfiguration object.
+     * 
+     * @param errorBackoff The time (in milliseconds) to wait after a failed fetch.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withErrorBackoff(long errorBackoff) {
+        setErrorBackoff(errorBackoff);
+        return this;
+    }
+
+    /**
+     * Returns the store the consumed position is committed to.
+     * <p>
+     * If set, the consumer resumes from the committed position of the subscription, if any, and
+     * commits the position following every page once the listener has processed it. A
+     * {@link CheckpointingListener} such as a {@link ParallelRecordProcessor} commits positions
+     * itself instead.
+     * 
+     * @return The store the consumed position is committed to.
+     */
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+
+    /**
+     * Sets the store the consumed position is committed to.
+     * <p>
+     * If set, the consumer resumes from the committed position of the subscription, if any, and
+     * commits the position following every page once the listener has processed it. A
+     * {@link CheckpointingListener} such as a {@link ParallelRecordProcessor} commits positions
+     * itself instead.
+     * 
+     * @param checkpointStore The checkpoint store, or null to not commit positions.
+     */
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * Sets the store the consumed position is committed to, and returns the updated
+     * ConsumerConfiguration object.
+     * 
+     * @param checkpointStore The checkpoint store, or null to not commit positions.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withCheckpointStore(CheckpointStore checkpointStore) {
+        setCheckpointStore(checkpointStore);
+        return this;
+    }
+
+    /**
+     * Returns the maximum time (in milliseconds) a subscription multiplexed by a
+     * SubscriptionScheduler waits between polls.
+     * <p>
+     * The scheduler doubles the idle interval after every consecutive empty page, and the error
+     * backoff after every consecutive failure, up to this limit.
+     * 
+     * @return The maximum time (in milliseconds) a subscription multiplexed by a
+     *         SubscriptionScheduler waits between polls.
+     */
+    public long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) a subscription multiplexed by a SubscriptionScheduler
+     * waits between polls.
+     * <p>
+     * The scheduler doubles the idle interval after every consecutive empty page, and the error
+     * backoff after every consecutive failure, up to this limit.
+     * 
+     * @param maxBackoff The maximum time (in milliseconds) between polls.
+     */
+    public void setMaxBackoff(long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) a subscription multiplexed by a SubscriptionScheduler
+     * waits between polls, and returns the updated ConsumerConfiguration object.
+     * 
+     * @param maxBackoff The maximum time (in milliseconds) between polls.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withMaxBackoff(long maxBackoff) {
+        setMaxBackoff(maxBackoff);
+        return this;
+    }
+
+    /**
+     * Returns the number of worker threads a SubscriptionScheduler multiplexes its subscriptions
+     * over.
+     * 
+     * @return The number of worker threads a SubscriptionScheduler multiplexes its subscriptions
+     *         over.
+     */
+    public int getSchedulerThreads() {
+        return schedulerThreads;
+    }
+
+    /**
+     * Sets the number of worker threads a SubscriptionScheduler multiplexes its subscriptions over.
+     * 
+     * @param schedulerThreads The number of scheduler worker threads.
+     */
+    public void setSchedulerThreads(int schedulerThreads) {
+        this.schedulerThreads = schedulerThreads;
+    }
+
+    /**
+     * Sets the number of worker threads a SubscriptionScheduler multiplexes its subscriptions over,
+     * and returns the updated ConsumerConfiguration object.
+     * 
+     * @param schedulerThreads The number of scheduler worker threads.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withSchedulerThreads(int schedulerThreads) {
+        setSchedulerThreads(schedulerThreads);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of get_logs requests a SubscriptionScheduler has in flight to the
+     * endpoint at once.
+     * <p>
+     * Subscriptions that are due while the limit is reached wait in FIFO order for a request to
+     * complete. A value of 0 or less allows one request per worker thread.
+     * 
+     * @return The maximum number of get_logs requests a SubscriptionScheduler has in flight to the
+     *         endpoint at once.
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * Sets the maximum number of get_logs requests a SubscriptionScheduler has in flight to the
+     * endpoint at once.
+     * <p>
+     * Subscriptions that are due while the limit is reached wait in FIFO order for a request to
+     * complete. A value of 0 or less allows one request per worker thread.
+     * 
+     * @param maxInFlightRequests The maximum number of in-flight requests, or 0 for one per worker
+     *        thread.
+     */
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    /**
+     * Sets the maximum number of get_logs requests a SubscriptionScheduler has in flight to the
+     * endpoint at once, and returns the updated ConsumerConfiguration object.
+     * 
+     * @param maxInFlightRequests The maximum number of in-flight requests, or 0 for one per worker
+     *        thread.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withMaxInFlightRequests(int maxInFlightRequests) {
+        setMaxInFlightRequests(maxInFlightRequests);
+        return this;
+    }
+
+    /**
+     * Returns the number of worker threads a ParallelRecordProcessor spreads the logs over.
+     * <p>
+     * Logs with the same partition key are always processed by the same thread. A value of 0 or
+     * less uses one thread per available processor.
+     * 
+     * @return The number of worker threads a ParallelRecordProcessor spreads the logs over.
+     */
+    public int getPipelineThreads() {
+        return pipelineThreads;
+    }
+
+    /**
+     * Sets the number of worker threads a ParallelRecordProcessor spreads the logs over.
+     * <p>
+     * Logs with the same partition key are always processed by the same thread. A value of 0 or
+     * less uses one thread per available processor.
+     * 
+     * @param pipelineThreads The number of pipeline worker threads, or 0 for one per available
+     *        processor.
+     */
+    public void setPipelineThreads(int pipelineThreads) {
+        this.pipelineThreads = pipelineThreads;
+    }
+
+    /**
+     * Sets the number of worker threads a ParallelRecordProcessor spreads the logs over, and
+     * returns the updated ConsumerConfiguration object.
+     * 
+     * @param pipelineThreads The number of pipeline worker threads, or 0 for one per available
+     *        processor.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withPipelineThreads(int pipelineThreads) {
+        setPipelineThreads(pipelineThreads);
+        return this;
+    }
+
+    /**
+     * Returns the number of logs that may wait for each worker thread of a ParallelRecordProcessor.
+     * <p>
+     * Once a worker's queue is full, the consumer handing it logs blocks until the worker catches
+     * up, so a slow pipeline slows down polling instead of buffering without bound.
+     * 
+     * @return The number of logs that may wait for each worker thread of a ParallelRecordProcessor.
+     */
+    public int getPipelineQueueCapacity() {
+        return pipelineQueueCapacity;
+    }
+
+    /**
+     * Sets the number of logs that may wait for each worker thread of a ParallelRecordProcessor.
+     * <p>
+     * Once a worker's queue is full, the consumer handing it logs blocks until the worker catches
+     * up, so a slow pipeline slows down polling instead of buffering without bound.
+     * 
+     * @param pipelineQueueCapacity The capacity of each worker queue.
+     */
+    public void setPipelineQueueCapacity(int pipelineQueueCapacity) {
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+    }
+
+    /**
+     * Sets the number of logs that may wait for each worker thread of a ParallelRecordProcessor,
+     * and returns the updated ConsumerConfiguration object.
+     * 
+     * @param pipelineQueueCapacity The capacity of each worker queue.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withPipelineQueueCapacity(int pipelineQueueCapacity) {
+        setPipelineQueueCapacity(pipelineQueueCapacity);
+        return this;
+    }
+
+    /**
+     * Returns whether a SubscriptionConsumer runs its loop on a virtual thread.
+     * <p>
+     * When enabled on JDK 21 or later, consumers started with SubscriptionConsumer.start() run on
+     * virtual threads, so that thousands of subscriptions can each have their own consumer without
+     * a platform thread per subscription. Enable ClientConfiguration.setVirtualThreads(boolean) as
+     * well so that the pages prefetched by the consumers are also fetched on virtual threads. On
+     * older runtimes the option is ignored. Disabled by default.
+     * 
+     * @return Whether a SubscriptionConsumer runs its loop on a virtual thread.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Sets whether a SubscriptionConsumer runs its loop on a virtual thread.
+     * <p>
+     * When enabled on JDK 21 or later, consumers started with SubscriptionConsumer.start() run on
+     * virtual threads, so that thousands of subscriptions can each have their own consumer without
+     * a platform thread per subscription. Enable ClientConfiguration.setVirtualThreads(boolean) as
+     * well so that the pages prefetched by the consumers are also fetched on virtual threads. On
+     * older runtimes the option is ignored. Disabled by default.
+     * 
+     * @param virtualThreads True to run consumer loops on virtual threads.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Sets whether a SubscriptionConsumer runs its loop on a virtual thread, and returns the
+     * updated ConsumerConfiguration object.
+     * 
+     * @param virtualThreads True to run consumer loops on virtual threads.
+     * @return The updated ConsumerConfiguration object.
+     */
+    public ConsumerConfiguration withVirtualThreads(boolean virtualThreads) {
+        setVirtualThreads(virtualThreads);
+        return this;
+    }
+
+}
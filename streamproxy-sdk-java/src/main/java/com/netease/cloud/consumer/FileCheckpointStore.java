@@ -0,0 +1,397 @@
+package com.netease.cloud.consumer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.netease.cloud.config.Constants;
+import com.netease.cloud.exception.ClientException;
+
+/**
+ * CheckpointStore backed by a local, memory-mapped, append-only position log.
+ * <p>
+ * Every checkpoint appends one record to the mapped log, which costs a memory copy and no system
+ * call. A background thread forces the mapping to disk at a fixed interval, so many checkpoints
+ * share one fsync. When the log fills up it is compacted into a new file holding only the latest
+ * position of each subscription, growing the file if the live positions take more than half of
+ * it. The compacted file is renamed over the log, which atomically replaces it on POSIX file
+ * systems, so the log file always holds either the old or the new records.
+ * <p>
+ * Each record is laid out as {@code [int payload length][int CRC32 of payload][payload]}, where
+ * the payload is {@code [short name length][name][short position length][position]} in UTF-8. On
+ * start-up the log is scanned up to the first empty or corrupt record, which also discards a
+ * record torn by a crash.
+ * <p>
+ * The log is guarded by a {@link ReentrantLock} rather than a monitor, because appends and
+ * compactions do I/O while holding it, and a virtual thread blocked in a monitor would pin its
+ * carrier thread.
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    /** The default initial size (in bytes) of the position log. */
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+
+    /** The default interval (in milliseconds) between background flushes. */
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+    /** Size of the record header: payload length and checksum. */
+    private static final int HEADER_SIZE = 8;
+
+    /** Shared log for checkpoint store events. */
+    private static final Log log = LogFactory.getLog(FileCheckpointStore.class);
+
+    private final File file;
+
+    /** Temporary file the log is compacted into before it replaces the log. */
+    private final File compactFile;
+
+    /** Latest committed position of each subscription. */
+    private final ConcurrentMap<String, String> checkpoints =
+            new ConcurrentHashMap<String, String>();
+
+    private final ScheduledExecutorService flusher;
+
+    /** Guards the log file, its mapping and the flags below. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private RandomAccessFile randomAccessFile;
+    private MappedByteBuffer buffer;
+    private boolean dirty;
+    private boolean closed;
+
+    /**
+     * Opens or creates a position log with the default capacity and flush interval.
+     * 
+     * @param file The position log file.
+     */
+    public FileCheckpointStore(File file) {
+        this(file, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Opens or creates a position log.
+     * 
+     * @param file The position log file.
+     * @param capacity The initial size (in bytes) of a newly created log.
+     * @param flushInterval The interval (in milliseconds) between background flushes, or 0 to
+     *        only flush on {@link #flush()} and {@link #close()}.
+     */
+    public FileCheckpointStore(File file, int capacity, long flushInterval) {
+        if (capacity <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Capacity must be larger than " + HEADER_SIZE);
+        }
+        this.file = file;
+        this.compactFile = new File(file.getPath() + ".compact");
+
+        try {
+            recoverCompaction();
+            map(capacity);
+            load();
+        } catch (IOException e) {
+            closeQuietly();
+            throw new ClientException("Unable to open checkpoint store " + file + ": "
+                    + e.getMessage(), e);
+        }
+
+        if (flushInterval > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "streamproxy-checkpoint-flusher");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            flusher.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    try {
+                        flush();
+                    } catch (Throwable t) {
+                        log.warn("Unable to flush checkpoint store", t);
+                    }
+                }
+            }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public String getCheckpoint(String subscriptionName) {
+        return checkpoints.get(subscriptionName);
+    }
+
+    public void checkpoint(String subscriptionName, String position) {
+        byte[] record = encode(subscriptionName, position);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new ClientException("Checkpoint store " + file + " is closed");
+            }
+            String previous = checkpoints.put(subscriptionName, position);
+            if (buffer.remaining() >= record.length) {
+                buffer.put(record);
+                dirty = true;
+                return;
+            }
+            // The compacted log already contains the new position
+            boolean compacted = false;
+            try {
+                compact();
+                compacted = true;
+            } catch (IOException e) {
+                throw new ClientException("Unable to compact checkpoint store " + file + ": "
+                        + e.getMessage(), e);
+            } finally {
+                if (!compacted) {
+                    // The log still doesn't hold the new position, so neither may the store
+                    if (previous != null) {
+                        checkpoints.put(subscriptionName, previous);
+                    } else {
+                        checkpoints.remove(subscriptionName);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces all appended records to disk. Appending continues while the mapping is being forced.
+     */
+    public void flush() {
+        MappedByteBuffer toForce;
+        lock.lock();
+        try {
+            if (closed || !dirty) {
+                return;
+            }
+            toForce = buffer;
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        boolean forced = false;
+        try {
+            force(toForce);
+            forced = true;
+        } finally {
+            if (!forced) {
+                // Retried by the next flush
+                lock.lock();
+                try {
+                    dirty = true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            if (dirty) {
+                force(buffer);
+                dirty = false;
+            }
+            closed = true;
+            closeQuietly();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes or discards a compaction interrupted by a crash. While the log exists, a compacted
+     * file is one that was never renamed over it, and may be incomplete, so it is discarded. A
+     * compacted file without a log is used as the log rather than starting from nothing.
+     */
+    private void recoverCompaction() throws IOException {
+        if (!compactFile.exists()) {
+            return;
+        }
+        if (file.exists()) {
+            if (!compactFile.delete()) {
+                throw new IOException("Unable to delete incomplete compaction " + compactFile);
+            }
+        } else if (!compactFile.renameTo(file)) {
+            throw new IOException("Unable to rename " + compactFile + " to " + file);
+        }
+    }
+
+    /** Maps the log file, extending it to the given capacity if it is smaller. */
+    private void map(int capacity) throws IOException {
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        long length = randomAccessFile.length();
+        if (length < capacity) {
+            randomAccessFile.setLength(capacity);
+            length = capacity;
+        }
+        buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+    }
+
+    /** Replays the log into memory and positions the buffer after the last valid record. */
+    private void load() throws UnsupportedEncodingException {
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Discarding corrupt checkpoint record at offset " + start + " of " + file);
+                buffer.position(start);
+                break;
+            }
+
+            int nameLength = ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF);
+            int positionOffset = 2 + nameLength;
+            int positionLength =
+                    ((payload[positionOffset] & 0xFF) << 8) | (payload[positionOffset + 1] & 0xFF);
+            checkpoints.put(new String(payload, 2, nameLength, Constants.DEFAULT_ENCODING),
+                    new String(payload, positionOffset + 2, positionLength,
+                            Constants.DEFAULT_ENCODING));
+        }
+    }
+
+    /**
+     * Rewrites the log with only the latest position of each subscription, growing the file so
+     * that at least half of it stays free for new records. The compacted log is written and forced
+     * to a temporary file, which is then renamed over the log. The open file and its mapping follow
+     * the rename, so they become the store's log. The current log and its mapping stay in use until
+     * the rename succeeds, so a failed compaction leaves the store as it was.
+     */
+    private void compact() throws IOException {
+        int live = 0;
+        for (Map.Entry<String, String> entry : checkpoints.entrySet()) {
+            live += encode(entry.getKey(), entry.getValue()).length;
+        }
+        int capacity = buffer.capacity();
+        while (live > capacity / 2) {
+            capacity *= 2;
+        }
+
+        RandomAccessFile compacted = new RandomAccessFile(compactFile, "rw");
+        MappedByteBuffer target;
+        boolean replaced = false;
+        try {
+            compacted.setLength(capacity);
+            target = compacted.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            for (Map.Entry<String, String> entry : checkpoints.entrySet()) {
+                target.put(encode(entry.getKey(), entry.getValue()));
+            }
+            force(target);
+            if (!compactFile.renameTo(file)) {
+                throw new IOException("Unable to replace " + file + " with " + compactFile);
+            }
+            replaced = true;
+        } finally {
+            if (!replaced) {
+                closeQuietly(compacted);
+                if (compactFile.exists() && !compactFile.delete()) {
+                    log.warn("Unable to delete incomplete compaction " + compactFile);
+                }
+            }
+        }
+
+        RandomAccessFile previous = randomAccessFile;
+        randomAccessFile = compacted;
+        buffer = target;
+        dirty = false;
+        closeQuietly(previous);
+        log.debug("Compacted checkpoint store " + file + " to " + live + " of " + capacity
+                + " bytes");
+    }
+
+    /**
+     * Forces the mapping to disk.
+     * 
+     * @param toForce The mapping to force.
+     */
+    void force(MappedByteBuffer toForce) {
+        toForce.force();
+    }
+
+    private static byte[] encode(String subscriptionName, String position) {
+        byte[] name;
+        byte[] value;
+        try {
+            name = subscriptionName.getBytes(Constants.DEFAULT_ENCODING);
+            value = position.getBytes(Constants.DEFAULT_ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            throw new ClientException("Unable to encode checkpoint: " + e.getMessage(), e);
+        }
+        if (name.length > 0xFFFF || value.length > 0xFFFF) {
+            throw new IllegalArgumentException(
+                    "Subscription name and position must be shorter than " + 0xFFFF + " bytes");
+        }
+
+        int payloadLength = 2 + name.length + 2 + value.length;
+        byte[] record = new byte[HEADER_SIZE + payloadLength];
+        int i = HEADER_SIZE;
+        record[i++] = (byte) (name.length >> 8);
+        record[i++] = (byte) name.length;
+        System.arraycopy(name, 0, record, i, name.length);
+        i += name.length;
+        record[i++] = (byte) (value.length >> 8);
+        record[i++] = (byte) value.length;
+        System.arraycopy(value, 0, record, i, value.length);
+
+        CRC32 crc = new CRC32();
+        crc.update(record, HEADER_SIZE, payloadLength);
+        putInt(record, 0, payloadLength);
+        putInt(record, 4, (int) crc.getValue());
+        return record;
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >> 24);
+        bytes[offset + 1] = (byte) (value >> 16);
+        bytes[offset + 2] = (byte) (value >> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private void closeQuietly() {
+        closeQuietly(randomAccessFile);
+        randomAccessFile = null;
+    }
+
+    private void closeQuietly(RandomAccessFile toClose) {
+        if (toClose != null) {
+            try {
+                toClose.close();
+            } catch (IOException e) {
+                log.warn("Unable to close checkpoint store " + file, e);
+            }
+        }
+    }
+
+}
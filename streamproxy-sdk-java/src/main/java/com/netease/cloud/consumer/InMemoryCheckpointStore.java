@@ -0,0 +1,27 @@
+package com.netease.cloud.consumer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CheckpointStore that keeps positions in memory only. Useful for tests and for consumers that
+ * share a store within one process but don't need to survive a restart.
+ */
+public class InMemoryCheckpointStore implements CheckpointStore {
+
+    private final ConcurrentMap<String, String> checkpoints =
+            new ConcurrentHashMap<String, String>();
+
+    public String getCheckpoint(String subscriptionName) {
+        return checkpoints.get(subscriptionName);
+    }
+
+    public void checkpoint(String subscriptionName, String position) {
+        checkpoints.put(subscriptionName, position);
+    }
+
+    public void flush() {}
+
+    public void close() {}
+
+}
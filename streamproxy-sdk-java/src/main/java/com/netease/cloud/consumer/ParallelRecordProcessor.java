@@ -0,0 +1,431 @@
+package com.netease.cloud.consumer;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.netease.cloud.exception.ClientException;
+import com.netease.cloud.util.CommonUtils;
+
+/**
+ * A pipeline stage spreading the logs handed to it by a {@link SubscriptionConsumer} or
+ * {@link SubscriptionScheduler} over a pool of worker threads, so that CPU heavy processing scales
+ * across cores instead of running on the polling thread.
+ * <p>
+ * Every log is routed to a worker by the partition key returned by the
+ * {@link PartitionKeyExtractor}; logs with equal keys go to the same worker and are processed in
+ * position order, logs with different keys are processed concurrently. Each worker has a bounded
+ * queue of {@link ConsumerConfiguration#getPipelineQueueCapacity()} logs, and
+ * {@link #onLogs(String, List, String)} blocks while the queue of a log is full.
+ * <p>
+ * Since pages complete out of order, positions are committed to the configured
+ * {@link CheckpointStore} up to a low watermark: the position following a page is committed only
+ * once every log of that page and of all earlier pages of the subscription has been processed.
+ * Positions are opaque, so the watermark advances page by page. After a restart, the consumer
+ * resumes from the watermark and logs processed beyond it are delivered again (at least once
+ * delivery).
+ * <p>
+ * If the {@link RecordHandler} throws, the watermark of the subscription stops at the page of the
+ * failed log, the remaining logs of the subscription are dropped and the next page handed to this
+ * processor throws, which stops the consumer of the subscription.
+ * <p>
+ * Use the same consumer configuration for the processor and the consumer: the consumer resumes
+ * from the checkpoint store and leaves committing to the processor.
+ * 
+ * <pre>
+ * ConsumerConfiguration config = new ConsumerConfiguration().withCheckpointStore(store);
+ * ParallelRecordProcessor processor = new ParallelRecordProcessor(handler, keyExtractor, config);
+ * new SubscriptionConsumer(client, subscriptionName, processor, config).start();
+ * </pre>
+ */
+public class ParallelRecordProcessor implements CheckpointingListener {
+
+    /** Shared logger for pipeline events */
+    private static final Log log = LogFactory.getLog(ParallelRecordProcessor.class);
+
+    /** Counts processors to give their threads unique names. */
+    private static final AtomicInteger processorCount = new AtomicInteger();
+
+    /** Queued after the last log of a worker to stop it. */
+    private static final Record STOP = new Record(null, null);
+
+    private final RecordHandler handler;
+    private final PartitionKeyExtractor keyExtractor;
+    private final CheckpointStore checkpointStore;
+
+    private final Worker[] workers;
+
+    /** Spreads the logs without a partition key over the workers. */
+    private final AtomicInteger nextWorker = new AtomicInteger();
+
+    /** Logs queued or being processed. */
+    private final AtomicInteger pendingRecords = new AtomicInteger();
+
+    private final ConcurrentMap<String, SubscriptionProgress> subscriptions =
+            new ConcurrentHashMap<String, SubscriptionProgress>();
+
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new processor using the default consumer configuration, which commits no
+     * positions.
+     * 
+     * @param handler The handler processing the logs.
+     * @param keyExtractor The extractor of the partition keys, or null to process all logs in any
+     *        order.
+     */
+    public ParallelRecordProcessor(RecordHandler handler, PartitionKeyExtractor keyExtractor) {
+        this(handler, keyExtractor, new ConsumerConfiguration());
+    }
+
+    /**
+     * Constructs a new processor. Its worker threads are started right away.
+     * 
+     * @param handler The handler processing the logs.
+     * @param keyExtractor The extractor of the partition keys, or null to process all logs in any
+     *        order.
+     * @param config The consumer configuration, giving the checkpoint store and the number and
+     *        queue capacity of the worker threads.
+     */
+    public ParallelRecordProcessor(RecordHandler handler, PartitionKeyExtractor keyExtractor,
+            ConsumerConfiguration config) {
+        CommonUtils commonUtils = new CommonUtils();
+        commonUtils.assertParameterNotNull(handler, "The handler parameter must be specified.");
+        commonUtils.assertParameterNotNull(config,
+                "The consumer configuration parameter must be specified.");
+
+        this.handler = handler;
+        this.keyExtractor = keyExtractor;
+        this.checkpointStore = config.getCheckpointStore();
+
+        int threads = config.getPipelineThreads();
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        int capacity = Math.max(1, config.getPipelineQueueCapacity());
+        String prefix = "streamproxy-pipeline-" + processorCount.incrementAndGet() + "-";
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(capacity, prefix + (i + 1));
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Queues the logs of a page for the workers. Returns once every log is queued, not once it is
+     * processed.
+     * 
+     * @throws ClientException If the processing of an earlier log of the subscription failed or
+     *         the calling thread is interrupted while waiting for a full queue.
+     * @throws IllegalStateException If the processor has been shut down.
+     */
+    public void onLogs(String subscriptionName, List<String> logs, String nextPosition) {
+        if (!running) {
+            throw new IllegalStateException("Processor has been shut down");
+        }
+        SubscriptionProgress progress = getProgress(subscriptionName);
+        progress.checkFailure();
+        Page page = progress.addPage(nextPosition, logs.size());
+        for (String record : logs) {
+            Object key =
+                    keyExtractor != null ? keyExtractor.getPartitionKey(subscriptionName, record)
+                            : null;
+            pendingRecords.incrementAndGet();
+            try {
+                workerFor(key).queue.put(new Record(page, record));
+            } catch (InterruptedException e) {
+                pendingRecords.decrementAndGet();
+                Thread.currentThread().interrupt();
+                ClientException ce =
+                        new ClientException("Interrupted queuing logs of " + subscriptionName, e);
+                progress.fail(ce);
+                throw ce;
+            }
+        }
+    }
+
+    /**
+     * Forwards an error of the consumer to the record handler.
+     */
+    public void onError(String subscriptionName, Exception e) {
+        reportError(subscriptionName, e);
+    }
+
+    /**
+     * Returns the last position of the subscription committed by this processor: the low
+     * watermark below which every log has been processed.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return The committed position, or null if no page of the subscription has been completed.
+     */
+    public String getCommittedPosition(String subscriptionName) {
+        SubscriptionProgress progress = subscriptions.get(subscriptionName);
+        return progress == null ? null : progress.getCommittedPosition();
+    }
+
+    /**
+     * Returns the number of logs queued or being processed.
+     * 
+     * @return The number of pending logs.
+     */
+    public int getPendingRecords() {
+        return pendingRecords.get();
+    }
+
+    /**
+     * Stops accepting logs. The workers process the logs already queued, committing their
+     * positions, then exit.
+     */
+    public void shutdown() {
+        running = false;
+        for (Worker worker : workers) {
+            try {
+                worker.queue.put(STOP);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                worker.thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits for the workers to finish after {@link #shutdown()}.
+     * 
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout.
+     * @return True if the workers finished, false if the timeout elapsed first.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Worker worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(worker.thread, remaining);
+            }
+            if (worker.thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Worker workerFor(Object key) {
+        int hash;
+        if (key == null) {
+            hash = nextWorker.getAndIncrement();
+        } else {
+            hash = key.hashCode();
+            hash ^= hash >>> 16;
+        }
+        return workers[(hash & Integer.MAX_VALUE) % workers.length];
+    }
+
+    private SubscriptionProgress getProgress(String subscriptionName) {
+        SubscriptionProgress progress = subscriptions.get(subscriptionName);
+        if (progress == null) {
+            SubscriptionProgress created = new SubscriptionProgress(subscriptionName);
+            progress = subscriptions.putIfAbsent(subscriptionName, created);
+            if (progress == null) {
+                progress = created;
+            }
+        }
+        return progress;
+    }
+
+    private void process(Record record) {
+        SubscriptionProgress progress = record.page.progress;
+        try {
+            if (progress.failure == null) {
+                handler.handle(progress.subscriptionName, record.log);
+                if (record.page.remaining.decrementAndGet() == 0) {
+                    progress.advance();
+                }
+            }
+        } catch (RuntimeException e) {
+            progress.fail(e);
+        } finally {
+            pendingRecords.decrementAndGet();
+        }
+    }
+
+    private void reportError(String subscriptionName, Exception e) {
+        try {
+            handler.onError(subscriptionName, e);
+        } catch (RuntimeException re) {
+            log.warn("Record handler failed to handle error", re);
+        }
+    }
+
+    /**
+     * One queued log.
+     */
+    private static class Record {
+
+        private final Page page;
+        private final String log;
+
+        Record(Page page, String log) {
+            this.page = page;
+            this.log = log;
+        }
+    }
+
+    /**
+     * One page handed to the processor, complete once all its logs have been processed.
+     */
+    private static class Page {
+
+        private final SubscriptionProgress progress;
+        private final String nextPosition;
+        private final AtomicInteger remaining;
+
+        Page(SubscriptionProgress progress, String nextPosition, int size) {
+            this.progress = progress;
+            this.nextPosition = nextPosition;
+            this.remaining = new AtomicInteger(size);
+        }
+    }
+
+    /**
+     * The pages of one subscription that are not committed yet, in position order. Positions are
+     * committed to the checkpoint store while holding the lock, which may do I/O, so it is a
+     * {@link ReentrantLock} rather than a monitor that would pin a virtual thread.
+     */
+    private class SubscriptionProgress {
+
+        private final String subscriptionName;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /** Guarded by lock. */
+        private final LinkedList<Page> pages = new LinkedList<Page>();
+
+        /** Guarded by lock. */
+        private String committedPosition;
+
+        /** The first processing failure, after which nothing more is committed. */
+        private volatile Exception failure;
+
+        SubscriptionProgress(String subscriptionName) {
+            this.subscriptionName = subscriptionName;
+        }
+
+        Page addPage(String nextPosition, int size) {
+            lock.lock();
+            try {
+                Page page = new Page(this, nextPosition, size);
+                pages.add(page);
+                if (size == 0) {
+                    advance();
+                }
+                return page;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        String getCommittedPosition() {
+            lock.lock();
+            try {
+                return committedPosition;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Drops the completed pages at the head of the queue and commits the position following
+         * the last of them.
+         */
+        void advance() {
+            lock.lock();
+            try {
+                String watermark = null;
+                while (!pages.isEmpty() && pages.getFirst().remaining.get() == 0) {
+                    watermark = pages.removeFirst().nextPosition;
+                }
+                if (watermark == null || failure != null) {
+                    return;
+                }
+                committedPosition = watermark;
+                if (checkpointStore != null) {
+                    try {
+                        checkpointStore.checkpoint(subscriptionName, watermark);
+                    } catch (RuntimeException e) {
+                        log.warn("Unable to commit position of subscription " + subscriptionName
+                                + ": " + e.getMessage(), e);
+                        reportError(subscriptionName, e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void fail(Exception e) {
+            lock.lock();
+            try {
+                if (failure != null) {
+                    return;
+                }
+                failure = e;
+            } finally {
+                lock.unlock();
+            }
+            log.warn("Error processing subscription " + subscriptionName + ": " + e.getMessage(),
+                    e);
+            reportError(subscriptionName, e);
+        }
+
+        void checkFailure() {
+            Exception e = failure;
+            if (e != null) {
+                throw new ClientException("Processing of subscription " + subscriptionName
+                        + " failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * A worker thread processing the logs of its queue in order.
+     */
+    private class Worker implements Runnable {
+
+        private final BlockingQueue<Record> queue;
+        private final Thread thread;
+
+        Worker(int capacity, String name) {
+            this.queue = new ArrayBlockingQueue<Record>(capacity);
+            this.thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        public void run() {
+            while (true) {
+                Record record;
+                try {
+                    record = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (record == STOP) {
+                    return;
+                }
+                process(record);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.netease.cloud.consumer;
+
+/**
+ * Returns the partition key of a log for {@link ParallelRecordProcessor}. Logs with equal keys are
+ * processed by the same worker thread, in position order.
+ */
+public interface PartitionKeyExtractor {
+
+    /**
+     * Returns the partition key of the log.
+     * 
+     * @param subscriptionName The subscription the log was read from.
+     * @param log The decoded log.
+     * @return The partition key, or null if the log may be processed in any order.
+     */
+    public Object getPartitionKey(String subscriptionName, String log);
+
+}
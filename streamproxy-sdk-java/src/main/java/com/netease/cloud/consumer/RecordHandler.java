@@ -0,0 +1,32 @@
+package com.netease.cloud.consumer;
+
+/**
+ * Callback interface used by {@link ParallelRecordProcessor} to process logs one at a time on its
+ * worker threads.
+ * <p>
+ * Logs with the same partition key are handled by the same thread, in position order; logs with
+ * different keys may be handled concurrently, so implementations must be thread-safe.
+ */
+public interface RecordHandler {
+
+    /**
+     * Invoked for every log of the subscription.
+     * <p>
+     * If this method throws, positions of the subscription are no longer committed past this log
+     * and the pipeline stops accepting logs of the subscription, so that they are processed again
+     * once the consumer is restarted.
+     * 
+     * @param subscriptionName The subscription the log was read from.
+     * @param log The decoded log.
+     */
+    public void handle(String subscriptionName, String log);
+
+    /**
+     * Invoked when fetching, processing or committing the logs of a subscription fails.
+     * 
+     * @param subscriptionName The subscription the error occurred on.
+     * @param e The error.
+     */
+    public void onError(String subscriptionName, Exception e);
+
+}
@@ -0,0 +1,304 @@
+package com.netease.cloud.consumer;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.netease.cloud.client.StreamProxyClient;
+import com.netease.cloud.exception.ClientException;
+import com.netease.cloud.model.GetLogsRequest;
+import com.netease.cloud.model.GetSubscriptionPositionRequest;
+import com.netease.cloud.model.LogBatch;
+import com.netease.cloud.util.CommonUtils;
+import com.netease.cloud.util.VirtualThreads;
+
+/**
+ * Continuously consumes the logs of one subscription and hands them to a
+ * {@link SubscriptionListener}.
+ * <p>
+ * The consumer resolves the start position once, then repeatedly calls
+ * {@link StreamProxyClient#getLogs(GetLogsRequest)} and advances the position from each
+ * response. The next page is requested on the client's asynchronous request pool while the listener
+ * is still processing the current one, so a busy subscription never waits for a full round-trip
+ * between pages.
+ * <p>
+ * If a {@link CheckpointStore} is configured, the consumer resumes from the committed position and
+ * commits the position following every page once the listener has returned, unless the listener
+ * is a {@link CheckpointingListener} that commits positions itself.
+ * <p>
+ * A consumer is started with {@link #start()} and runs on its own thread until
+ * {@link #shutdown()} is called or the listener throws.
+ */
+public class SubscriptionConsumer implements Runnable {
+
+    /** Shared logger for consumer events */
+    private static final Log log = LogFactory.getLog(SubscriptionConsumer.class);
+
+    private final StreamProxyClient client;
+    private final String subscriptionName;
+    private final SubscriptionListener listener;
+    private final ConsumerConfiguration config;
+
+    /** Whether the listener commits positions itself. */
+    private final boolean listenerCommits;
+
+    /** The thread running the consumer loop, null until started. */
+    private Thread thread;
+
+    /** Whether {@link #shutdown()} has been called, guarded by this. */
+    private boolean shutdown;
+
+    private volatile boolean running;
+
+    /** The position following the last page handed to the listener. */
+    private volatile String position;
+
+    /**
+     * Constructs a new consumer for the specified subscription using the default consumer
+     * configuration.
+     * 
+     * @param client The client used to read the subscription.
+     * @param subscriptionName The subscription to consume.
+     * @param listener The listener receiving the logs.
+     */
+    public SubscriptionConsumer(StreamProxyClient client, String subscriptionName,
+            SubscriptionListener listener) {
+        this(client, subscriptionName, listener, new ConsumerConfiguration());
+    }
+
+    /**
+     * Constructs a new consumer for the specified subscription.
+     * 
+     * @param client The client used to read the subscription.
+     * @param subscriptionName The subscription to consume.
+     * @param listener The listener receiving the logs.
+     * @param config The consumer configuration.
+     */
+    public SubscriptionConsumer(StreamProxyClient client, String subscriptionName,
+            SubscriptionListener listener, ConsumerConfiguration config) {
+        CommonUtils commonUtils = new CommonUtils();
+        commonUtils.assertParameterNotNull(client, "The client parameter must be specified.");
+        commonUtils.assertParameterNotNull(subscriptionName,
+                "The subscription name parameter must be specified.");
+        commonUtils.assertParameterNotNull(listener, "The listener parameter must be specified.");
+        commonUtils.assertParameterNotNull(config,
+                "The consumer configuration parameter must be specified.");
+
+        this.client = client;
+        this.subscriptionName = subscriptionName;
+        this.listener = listener;
+        this.config = new ConsumerConfiguration(config);
+        this.listenerCommits = listener instanceof CheckpointingListener;
+    }
+
+    /**
+     * Starts consuming on a new thread, a virtual one if
+     * {@link ConsumerConfiguration#isVirtualThreads()} is enabled and supported.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("Consumer of " + subscriptionName
+                    + " has already been started");
+        }
+        running = !shutdown;
+        String name = "streamproxy-consumer-" + subscriptionName;
+        ThreadFactory threadFactory =
+                config.isVirtualThreads() ? VirtualThreads.newThreadFactory(name + "-") : null;
+        thread = threadFactory != null ? threadFactory.newThread(this) : new Thread(this, name);
+        thread.start();
+    }
+
+    /**
+     * Stops consuming. The page currently being processed by the listener is allowed to finish;
+     * no further pages are delivered once this method returns, and the page fetched ahead is
+     * dropped.
+     */
+    public void shutdown() {
+        Thread t;
+        synchronized (this) {
+            shutdown = true;
+            running = false;
+            t = thread;
+        }
+        if (t != null && t != Thread.currentThread()) {
+            t.interrupt();
+        }
+    }
+
+    /**
+     * Returns whether the consumer loop is still running.
+     * 
+     * @return True if the consumer is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns the subscription consumed by this consumer.
+     * 
+     * @return The subscription name.
+     */
+    public String getSubscriptionName() {
+        return subscriptionName;
+    }
+
+    /**
+     * Returns the position following the last page successfully handed to the listener, or null if
+     * no position has been resolved yet.
+     * 
+     * @return The current position.
+     */
+    public String getPosition() {
+        return position;
+    }
+
+    /**
+     * The consumer loop. Normally run on the thread created by {@link #start()}, but may also be
+     * run directly by callers that manage their own threads.
+     */
+    public void run() {
+        synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            running = true;
+        }
+        Future<LogBatch> pending = null;
+        try {
+            String current = resolveInitialPosition();
+            if (current == null) {
+                return;
+            }
+            position = current;
+
+            pending = prefetch(current);
+            while (running) {
+                LogBatch page;
+                try {
+                    page = pending.get();
+                } catch (ExecutionException e) {
+                    reportError(e.getCause());
+                    if (!pause(config.getErrorBackoff())) {
+                        break;
+                    }
+                    pending = prefetch(current);
+                    continue;
+                }
+
+                if (page.isEmpty()) {
+                    if (!pause(config.getIdleInterval())) {
+                        break;
+                    }
+                    current = page.getNextPosition();
+                    position = current;
+                    pending = prefetch(current);
+                    continue;
+                }
+
+                // Overlap the next round-trip with the processing of this page
+                pending = prefetch(page.getNextPosition());
+                if (!running) {
+                    // Stopped while the page was fetched
+                    break;
+                }
+                try {
+                    listener.onLogs(subscriptionName, page.getLogs(), page.getNextPosition());
+                } catch (RuntimeException e) {
+                    reportError(e);
+                    break;
+                }
+                current = page.getNextPosition();
+                position = current;
+                commit(current);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RejectedExecutionException e) {
+            // The client was shut down concurrently
+        } finally {
+            running = false;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Resolves the start position from the checkpoint store, the configured initial position or
+     * the configured position type, in that order. Position lookups are retried with the
+     * configured backoff until one succeeds or the consumer is stopped.
+     * 
+     * @return The start position, or null if the consumer was stopped first.
+     */
+    private String resolveInitialPosition() throws InterruptedException {
+        CheckpointStore checkpointStore = config.getCheckpointStore();
+        if (checkpointStore != null) {
+            String checkpoint = checkpointStore.getCheckpoint(subscriptionName);
+            if (checkpoint != null) {
+                return checkpoint;
+            }
+        }
+        if (config.getInitialPosition() != null) {
+            return config.getInitialPosition();
+        }
+        while (running) {
+            try {
+                return client.getSubscriptionPosition(
+                        new GetSubscriptionPositionRequest(config.getPositionType(),
+                                subscriptionName)).getPosition();
+            } catch (Exception e) {
+                reportError(e);
+                if (!pause(config.getErrorBackoff())) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Future<LogBatch> prefetch(String fromPosition) {
+        return client.getLogsAsync(new GetLogsRequest(fromPosition, config.getLimit(),
+                subscriptionName));
+    }
+
+    private void commit(String committedPosition) {
+        CheckpointStore checkpointStore = config.getCheckpointStore();
+        if (checkpointStore == null || listenerCommits) {
+            return;
+        }
+        try {
+            checkpointStore.checkpoint(subscriptionName, committedPosition);
+        } catch (RuntimeException e) {
+            reportError(e);
+        }
+    }
+
+    private void reportError(Throwable t) {
+        Exception e =
+                t instanceof Exception ? (Exception) t : new ClientException(t.getMessage(), t);
+        log.warn("Error consuming subscription " + subscriptionName + ": " + e.getMessage(), e);
+        try {
+            listener.onError(subscriptionName, e);
+        } catch (RuntimeException re) {
+            log.warn("Subscription listener failed to handle error", re);
+        }
+    }
+
+    /**
+     * Sleeps for the given time unless the consumer is stopped first.
+     * 
+     * @return True if the consumer should keep running.
+     */
+    private boolean pause(long millis) throws InterruptedException {
+        if (millis > 0 && running) {
+            Thread.sleep(millis);
+        }
+        return running;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.netease.cloud.consumer;
+
+import java.util.List;
+
+/**
+ * Callback interface used by {@link SubscriptionConsumer} to hand fetched logs to the caller.
+ * <p>
+ * Callbacks for one subscription are always invoked from the same consumer thread, one page at a
+ * time and in position order.
+ */
+public interface SubscriptionListener {
+
+    /**
+     * Invoked for every non-empty page of logs fetched from the subscription.
+     * <p>
+     * The consumer only advances its position once this method returns normally. If it throws, the
+     * consumer reports the error through {@link #onError(String, Exception)} and stops.
+     * 
+     * @param subscriptionName The subscription the logs were read from.
+     * @param logs The decoded logs of this page, in order.
+     * @param nextPosition The position following the last log of this page.
+     */
+    public void onLogs(String subscriptionName, List<String> logs, String nextPosition);
+
+    /**
+     * Invoked when fetching or processing a page fails.
+     * 
+     * @param subscriptionName The subscription the error occurred on.
+     * @param e The error.
+     */
+    public void onError(String subscriptionName, Exception e);
+
+}
@@ -0,0 +1,439 @@
+package com.netease.cloud.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.netease.cloud.client.StreamProxyClient;
+import com.netease.cloud.model.GetLogsRequest;
+import com.netease.cloud.model.GetSubscriptionPositionRequest;
+import com.netease.cloud.model.LogBatch;
+import com.netease.cloud.util.CommonUtils;
+
+/**
+ * Consumes many subscriptions over a bounded pool of worker threads and hands their logs to one
+ * {@link SubscriptionListener}.
+ * <p>
+ * Unlike {@link SubscriptionConsumer}, a subscription does not own a thread: it is a task that is
+ * rescheduled after every poll. A subscription whose page came back full is polled again right
+ * away, one whose page came back partially filled after the idle interval, and one whose page came
+ * back empty after an interval that doubles with every consecutive empty page up to the maximum
+ * backoff. Failures back off the same way from the error backoff. Due subscriptions run in the
+ * order they became due, so hot subscriptions take turns instead of starving each other.
+ * <p>
+ * The number of get_logs requests in flight to the endpoint is capped by
+ * {@link ConsumerConfiguration#getMaxInFlightRequests()}; subscriptions that are due while the
+ * limit is reached wait in FIFO order for a request to complete.
+ * <p>
+ * Positions are committed as for {@link SubscriptionConsumer}, unless the listener is a
+ * {@link CheckpointingListener}.
+ * <p>
+ * Pages of one subscription are always delivered one at a time and in order. If the listener
+ * throws, the error is reported through {@link SubscriptionListener#onError(String, Exception)} and
+ * that subscription is removed from the scheduler.
+ */
+public class SubscriptionScheduler {
+
+    /** Shared logger for scheduler events */
+    private static final Log log = LogFactory.getLog(SubscriptionScheduler.class);
+
+    /** Counts schedulers to give their threads unique names. */
+    private static final AtomicInteger schedulerCount = new AtomicInteger();
+
+    private final StreamProxyClient client;
+    private final SubscriptionListener listener;
+    private final ConsumerConfiguration config;
+
+    /** Whether the listener commits positions itself. */
+    private final boolean listenerCommits;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /** Permits for the get_logs requests in flight to the endpoint. */
+    private final Semaphore inFlight;
+
+    /** Subscriptions that became due while no request permit was available. */
+    private final Queue<SubscriptionTask> waiting = new ConcurrentLinkedQueue<SubscriptionTask>();
+
+    private final ConcurrentMap<String, SubscriptionTask> subscriptions =
+            new ConcurrentHashMap<String, SubscriptionTask>();
+
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new scheduler using the default consumer configuration.
+     * 
+     * @param client The client used to read the subscriptions.
+     * @param listener The listener receiving the logs of all subscriptions.
+     */
+    public SubscriptionScheduler(StreamProxyClient client, SubscriptionListener listener) {
+        this(client, listener, new ConsumerConfiguration());
+    }
+
+    /**
+     * Constructs a new scheduler. Its worker threads are started right away and consume
+     * subscriptions as they are added with {@link #subscribe(String)}.
+     * 
+     * @param client The client used to read the subscriptions.
+     * @param listener The listener receiving the logs of all subscriptions.
+     * @param config The consumer configuration, applied to every subscription.
+     */
+    public SubscriptionScheduler(StreamProxyClient client, SubscriptionListener listener,
+            ConsumerConfiguration config) {
+        CommonUtils commonUtils = new CommonUtils();
+        commonUtils.assertParameterNotNull(client, "The client parameter must be specified.");
+        commonUtils.assertParameterNotNull(listener, "The listener parameter must be specified.");
+        commonUtils.assertParameterNotNull(config,
+                "The consumer configuration parameter must be specified.");
+
+        this.client = client;
+        this.listener = listener;
+        this.config = new ConsumerConfiguration(config);
+        this.listenerCommits = listener instanceof CheckpointingListener;
+
+        int threads = Math.max(1, this.config.getSchedulerThreads());
+        int maxInFlight = this.config.getMaxInFlightRequests();
+        this.inFlight = new Semaphore(maxInFlight > 0 ? maxInFlight : threads, true);
+
+        final String prefix = "streamproxy-scheduler-" + schedulerCount.incrementAndGet() + "-";
+        this.executor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, prefix + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Starts consuming the specified subscription. Does nothing if the subscription is already
+     * being consumed. If the subscription was unsubscribed but its task has not stopped yet (ex: its
+     * get_logs request is still in flight), that task is resumed, so that a subscription is never
+     * polled by two tasks at once.
+     * 
+     * @param subscriptionName The subscription to consume.
+     */
+    public void subscribe(String subscriptionName) {
+        new CommonUtils().assertParameterNotNull(subscriptionName,
+                "The subscription name parameter must be specified.");
+        if (!running) {
+            throw new IllegalStateException("Scheduler has been shut down");
+        }
+        for (;;) {
+            SubscriptionTask existing = subscriptions.get(subscriptionName);
+            if (existing != null && existing.resume()) {
+                return;
+            }
+            SubscriptionTask task = new SubscriptionTask(subscriptionName);
+            boolean added =
+                    existing == null ? subscriptions.putIfAbsent(subscriptionName, task) == null
+                            : subscriptions.replace(subscriptionName, existing, task);
+            if (added) {
+                schedule(task, 0);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops consuming the specified subscription. A page of the subscription that is currently
+     * being processed by the listener is allowed to finish.
+     * 
+     * @param subscriptionName The subscription to stop consuming.
+     */
+    public void unsubscribe(String subscriptionName) {
+        SubscriptionTask task = subscriptions.get(subscriptionName);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Returns the subscriptions currently consumed by this scheduler.
+     * 
+     * @return The subscription names.
+     */
+    public List<String> getSubscriptions() {
+        List<String> names = new ArrayList<String>();
+        for (SubscriptionTask task : subscriptions.values()) {
+            if (task.isActive()) {
+                names.add(task.subscriptionName);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the position following the last page of the subscription successfully handed to the
+     * listener, or null if the subscription is not consumed or no position has been resolved yet.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return The current position of the subscription.
+     */
+    public String getPosition(String subscriptionName) {
+        SubscriptionTask task = subscriptions.get(subscriptionName);
+        return task == null || !task.isActive() ? null : task.position;
+    }
+
+    /**
+     * Returns whether the scheduler is still running.
+     * 
+     * @return True if the scheduler is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops consuming all subscriptions. Pages currently being processed by the listener are
+     * allowed to finish; no further pages are delivered once they have.
+     */
+    public void shutdown() {
+        running = false;
+        for (SubscriptionTask task : subscriptions.values()) {
+            task.cancel();
+        }
+        subscriptions.clear();
+        waiting.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Waits for the worker threads to finish after {@link #shutdown()}.
+     * 
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout.
+     * @return True if the worker threads finished, false if the timeout elapsed first.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Schedules the next run of a task that is not running, or stops the task if it was
+     * unsubscribed.
+     * 
+     * @return True if the task was scheduled.
+     */
+    private boolean schedule(SubscriptionTask task, long delay) {
+        if (!running || task.stopIfCancelled()) {
+            return false;
+        }
+        try {
+            executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // The scheduler was shut down concurrently
+            return false;
+        }
+    }
+
+    /**
+     * Hands a released request permit to the longest waiting subscription, if any. Waiting
+     * subscriptions that were unsubscribed in the meantime are stopped and skipped.
+     */
+    private void releasePermit() {
+        inFlight.release();
+        SubscriptionTask next;
+        while ((next = waiting.poll()) != null) {
+            if (schedule(next, 0)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns base * 2^(attempts - 1), capped at the maximum backoff.
+     */
+    private long backoff(long base, int attempts) {
+        long max = Math.max(base, config.getMaxBackoff());
+        long delay = base;
+        for (int i = 1; i < attempts && delay < max; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, max);
+    }
+
+    /**
+     * One scheduled subscription. A task is scheduled at most once at a time, so its fields are
+     * only touched by one worker thread at a time.
+     * <p>
+     * An unsubscribed task is cancelled, and keeps its place in the subscriptions map until it
+     * stops, which it does the next time it would be scheduled. Until then, subscribing again
+     * resumes it.
+     */
+    private class SubscriptionTask implements Runnable {
+
+        private static final int ACTIVE = 0;
+        private static final int CANCELLED = 1;
+        private static final int STOPPED = 2;
+
+        private final String subscriptionName;
+
+        /** The position following the last page handed to the listener. */
+        private volatile String position;
+
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+        private int emptyPolls;
+        private int failures;
+
+        SubscriptionTask(String subscriptionName) {
+            this.subscriptionName = subscriptionName;
+        }
+
+        boolean isActive() {
+            return state.get() == ACTIVE;
+        }
+
+        void cancel() {
+            state.compareAndSet(ACTIVE, CANCELLED);
+        }
+
+        /**
+         * Resumes a cancelled task that has not stopped yet.
+         * 
+         * @return False if the task has stopped and has to be replaced.
+         */
+        boolean resume() {
+            return state.compareAndSet(CANCELLED, ACTIVE) || state.get() == ACTIVE;
+        }
+
+        /**
+         * Stops the task if it is cancelled, removing it from the subscriptions. Must only be
+         * called while the task is neither running nor scheduled.
+         * 
+         * @return True if the task is stopped.
+         */
+        boolean stopIfCancelled() {
+            if (state.compareAndSet(CANCELLED, STOPPED)) {
+                subscriptions.remove(subscriptionName, this);
+            }
+            return state.get() == STOPPED;
+        }
+
+        public void run() {
+            if (!running) {
+                return;
+            }
+            if (!isActive()) {
+                // Stops the task, or runs it again right away if it was resumed meanwhile
+                schedule(this, 0);
+                return;
+            }
+            if (!inFlight.tryAcquire()) {
+                waiting.add(this);
+                // A permit may have been released before this task was queued
+                if (inFlight.tryAcquire()) {
+                    releasePermit();
+                }
+                return;
+            }
+
+            LogBatch page;
+            try {
+                if (position == null) {
+                    position = resolveInitialPosition();
+                }
+                page = client.getLogs(new GetLogsRequest(position, config.getLimit(),
+                        subscriptionName));
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                if (!isActive()) {
+                    schedule(this, 0);
+                    return;
+                }
+                failures++;
+                reportError(e);
+                schedule(this, backoff(config.getErrorBackoff(), failures));
+                return;
+            } finally {
+                releasePermit();
+            }
+            failures = 0;
+
+            if (page.isEmpty()) {
+                emptyPolls++;
+                position = page.getNextPosition();
+                schedule(this, backoff(config.getIdleInterval(), emptyPolls));
+                return;
+            }
+            emptyPolls = 0;
+
+            if (!isActive()) {
+                // The page is dropped: a resumed task fetches it again
+                schedule(this, 0);
+                return;
+            }
+            try {
+                listener.onLogs(subscriptionName, page.getLogs(), page.getNextPosition());
+            } catch (RuntimeException e) {
+                reportError(e);
+                cancel();
+                schedule(this, 0);
+                return;
+            }
+            position = page.getNextPosition();
+            commit();
+
+            // Full pages mean the subscription has a backlog: poll it again as soon as possible
+            schedule(this, page.size() >= config.getLimit() ? 0 : config.getIdleInterval());
+        }
+
+        private String resolveInitialPosition() {
+            CheckpointStore checkpointStore = config.getCheckpointStore();
+            if (checkpointStore != null) {
+                String checkpoint = checkpointStore.getCheckpoint(subscriptionName);
+                if (checkpoint != null) {
+                    return checkpoint;
+                }
+            }
+            if (config.getInitialPosition() != null) {
+                return config.getInitialPosition();
+            }
+            return client.getSubscriptionPosition(
+                    new GetSubscriptionPositionRequest(config.getPositionType(), subscriptionName))
+                    .getPosition();
+        }
+
+        private void commit() {
+            CheckpointStore checkpointStore = config.getCheckpointStore();
+            if (checkpointStore == null || listenerCommits) {
+                return;
+            }
+            try {
+                checkpointStore.checkpoint(subscriptionName, position);
+            } catch (RuntimeException e) {
+                reportError(e);
+            }
+        }
+
+        private void reportError(Exception e) {
+            log.warn("Error consuming subscription " + subscriptionName + ": " + e.getMessage(),
+                    e);
+            try {
+                listener.onError(subscriptionName, e);
+            } catch (RuntimeException re) {
+                log.warn("Subscription listener failed to handle error", re);
+            }
+        }
+    }
+
+}
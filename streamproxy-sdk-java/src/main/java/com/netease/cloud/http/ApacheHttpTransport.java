@@ -0,0 +1,123 @@
+package com.netease.cloud.http;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.routing.HttpRoute;
+
+import com.netease.cloud.config.ClientConfiguration;
+import com.netease.cloud.metrics.Metric;
+import com.netease.cloud.metrics.MetricsCollector;
+import com.netease.cloud.metrics.RequestMetrics;
+
+/**
+ * The default transport, sending every request on a pooled HTTP/1.1 connection of an Apache
+ * HttpClient. Each request in flight holds one connection, so the pool is sized by
+ * {@link ClientConfiguration#getMaxConnections()}.
+ */
+public class ApacheHttpTransport implements HttpTransport {
+
+    /** Creates Apache transports. */
+    public static final HttpTransportFactory FACTORY = new HttpTransportFactory() {
+        public HttpTransport createTransport(ClientConfiguration config) {
+            return new ApacheHttpTransport(config);
+        }
+    };
+
+    private static HttpRequestFactory httpRequestFactory = new HttpRequestFactory();
+    private static HttpClientFactory httpClientFactory = new HttpClientFactory();
+
+    /** Internal client for sending HTTP requests */
+    private final HttpClient httpClient;
+
+    /** Receives the connection lease times, or null */
+    private final MetricsCollector metricsCollector;
+
+    /**
+     * Constructs a new transport using the specified client configuration options.
+     * 
+     * @param config Client configuration options (ex: proxy settings, connection limits, etc).
+     */
+    public ApacheHttpTransport(ClientConfiguration config) {
+        this.httpClient = httpClientFactory.createHttpClient(config);
+        this.metricsCollector = config.getMetricsCollector();
+    }
+
+    public HttpResponse execute(Request request) throws IOException {
+        HttpRequestBase httpRequest = httpRequestFactory.createHttpRequest(request);
+        org.apache.http.HttpResponse response;
+        try {
+            response = httpClient.execute(httpRequest);
+        } finally {
+            recordLeaseTime(request);
+        }
+        try {
+            return createResponse(request, response);
+        } catch (IOException e) {
+            httpRequest.abort();
+            throw e;
+        }
+    }
+
+    public PoolStats getPoolStats() {
+        return ((StatsClientConnManager) httpClient.getConnectionManager()).getTotalStats();
+    }
+
+    public PoolStats getPoolStats(URI endpoint) {
+        HttpHost target =
+                new HttpHost(endpoint.getHost(), endpoint.getPort(), endpoint.getScheme());
+        boolean secure = "https".equalsIgnoreCase(endpoint.getScheme());
+        return ((StatsClientConnManager) httpClient.getConnectionManager())
+                .getStats(new HttpRoute(target, null, secure));
+    }
+
+    public void shutdown() {
+        IdleConnectionReaper.removeConnectionManager(httpClient.getConnectionManager());
+        httpClient.getConnectionManager().shutdown();
+    }
+
+    private void recordLeaseTime(Request request) {
+        if (metricsCollector == null) {
+            return;
+        }
+        long lease =
+                ((StatsClientConnManager) httpClient.getConnectionManager()).takeLeaseTime();
+        if (lease >= 0) {
+            RequestMetrics.of(metricsCollector, request).recordTime(
+                    Metric.CONNECTION_LEASE_TIME, lease);
+        }
+    }
+
+    /**
+     * Creates and initializes an HttpResponse object suitable to be passed to an HTTP response
+     * handler object.
+     * 
+     * @param request The HTTP request associated with the response.
+     * @param apacheHttpResponse The response received by the Apache HttpClient.
+     * @return The new, initialized HttpResponse object ready to be passed to an HTTP response
+     *         handler object.
+     * @throws IOException If there were any problems getting any response information from the
+     *         HttpClient method object.
+     */
+    private HttpResponse createResponse(Request request,
+            org.apache.http.HttpResponse apacheHttpResponse) throws IOException {
+        HttpResponse httpResponse = new HttpResponse(request);
+
+        if (apacheHttpResponse.getEntity() != null) {
+            httpResponse.setContentStream(apacheHttpResponse.getEntity().getContent());
+        }
+
+        httpResponse.setStatusCode(apacheHttpResponse.getStatusLine().getStatusCode());
+        httpResponse.setStatusText(apacheHttpResponse.getStatusLine().getReasonPhrase());
+        for (Header header : apacheHttpResponse.getAllHeaders()) {
+            httpResponse.addHeader(header.getName(), header.getValue());
+        }
+
+        return httpResponse;
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.netease.cloud.http;
 
-import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
 import org.apache.http.params.HttpParams;
 
 import com.netease.cloud.config.ClientConfiguration;
@@ -9,19 +8,27 @@ import com.netease.cloud.config.ClientConfiguration;
 class ConnectionManagerFactory {
 
     /**
-     * Create threadsafe client connect manager.
+     * Create threadsafe client connect manager. The pool holds at most
+     * {@link ClientConfiguration#getMaxConnections()} connections, of which at most
+     * {@link ClientConfiguration#getMaxConnectionsPerRoute()} go to any one endpoint.
      * 
      * @param config Used to connect to server.
      * @param httpClientParams.
      * @return connection manager.
      */
-    public static ThreadSafeClientConnManager createThreadSafeClientConnManager(
+    public static StatsClientConnManager createThreadSafeClientConnManager(
             ClientConfiguration config, HttpParams httpClientParams) {
-        ThreadSafeClientConnManager connectionManager = new ThreadSafeClientConnManager();
-        connectionManager.setDefaultMaxPerRoute(config.getMaxConnections());
+        int maxPerRoute = config.getMaxConnectionsPerRoute();
+        if (maxPerRoute <= 0 || maxPerRoute > config.getMaxConnections()) {
+            maxPerRoute = config.getMaxConnections();
+        }
+
+        StatsClientConnManager connectionManager =
+                new StatsClientConnManager(config.getConnectionTTL());
         connectionManager.setMaxTotal(config.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
 
-        IdleConnectionReaper.registerConnectionManager(connectionManager);
+        IdleConnectionReaper.registerConnectionManager(connectionManager, config);
         return connectionManager;
     }
 }
@@ -0,0 +1,97 @@
+package com.netease.cloud.http;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decompresses response content sent with a gzip or deflate Content-Encoding. The content is
+ * inflated as it is read, so a compressed body is never buffered before being decoded. The
+ * Content-Length header of a decompressed response is removed, as it no longer matches the content
+ * stream.
+ */
+public class ContentDecoder {
+
+    /** The content codings the client accepts when response compression is enabled. */
+    public static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Private constructor - static methods only. */
+    private ContentDecoder() {}
+
+    /**
+     * Replaces the content stream of the response with a stream decompressing it, if the response
+     * was sent with a Content-Encoding the client accepts. Closing the decompressing stream
+     * closes the original one.
+     * 
+     * @param response The response to decode.
+     * @throws IOException If the gzip header of the content could not be read.
+     */
+    public static void decode(HttpResponse response) throws IOException {
+        InputStream content = response.getContentStream();
+        if (content == null) {
+            return;
+        }
+        String encoding = getContentEncoding(response.getHeaders());
+        if (encoding == null) {
+            return;
+        }
+        encoding = encoding.trim().toLowerCase();
+        if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+            response.setContentStream(new GZIPInputStream(content, BUFFER_SIZE));
+        } else if (encoding.equals("deflate")) {
+            response.setContentStream(inflate(content));
+        } else {
+            return;
+        }
+        // The announced length is the compressed one, the decoded length is unknown
+        Iterator<String> names = response.getHeaders().keySet().iterator();
+        while (names.hasNext()) {
+            if (Headers.CONTENT_LENGTH.equalsIgnoreCase(names.next())) {
+                names.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns a stream inflating deflate content. The deflate coding is meant to be zlib wrapped,
+     * but some servers send raw deflate data, so the zlib header is looked for first.
+     */
+    private static InputStream inflate(InputStream content) throws IOException {
+        InputStream buffered = new BufferedInputStream(content, BUFFER_SIZE);
+        buffered.mark(2);
+        int cmf = buffered.read();
+        int flg = buffered.read();
+        buffered.reset();
+        boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new InflaterInputStream(buffered, new Inflater(!zlib), BUFFER_SIZE) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    // The inflater isn't owned by the stream, so it must be released here
+                    inf.end();
+                    super.close();
+                }
+            }
+        };
+    }
+
+    private static String getContentEncoding(Map<String, String> headers) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (Headers.CONTENT_ENCODING.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.netease.cloud.http;
+
+import com.netease.cloud.auth.CredentialsProvider;
+import com.netease.cloud.auth.Signer;
+
+/**
+ * Per request state the HTTP client needs besides the request itself. The signer and credentials
+ * are used to sign the request right before every attempt, so that each attempt carries a fresh
+ * Date header however long it waited to be sent.
+ */
+public class ExecutionContext {
+
+    private final Signer signer;
+    private final CredentialsProvider credentialsProvider;
+
+    public ExecutionContext(Signer signer, CredentialsProvider credentialsProvider) {
+        this.signer = signer;
+        this.credentialsProvider = credentialsProvider;
+    }
+
+    /**
+     * Returns the signer of the request, or null if the request is not signed.
+     * 
+     * @return The signer of the request.
+     */
+    public Signer getSigner() {
+        return signer;
+    }
+
+    /**
+     * Returns the provider of the credentials the request is signed with.
+     * 
+     * @return The credentials provider.
+     */
+    public CredentialsProvider getCredentialsProvider() {
+        return credentialsProvider;
+    }
+
+    /**
+     * Signs the request with the current credentials, replacing any previous signature.
+     * 
+     * @param request The request to sign.
+     */
+    public void sign(Request request) {
+        if (signer != null && credentialsProvider != null) {
+            signer.sign(request, credentialsProvider.getCredentials());
+        }
+    }
+
+}
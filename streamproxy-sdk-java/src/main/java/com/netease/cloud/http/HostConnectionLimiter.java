@@ -0,0 +1,105 @@
+package com.netease.cloud.http;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.netease.cloud.exception.ClientException;
+
+/**
+ * Limits the number of requests in flight for each Host header.
+ * <p>
+ * Requests for all subscriptions go to the same endpoint, so the connection manager sees them as a
+ * single route and cannot keep one subscription from leasing every pooled connection. This limiter
+ * gives each Host, and so each subscription, its own budget of concurrent requests that is
+ * acquired before a connection is leased and released once the response has been handled.
+ * <p>
+ * Without a limit the limiter still counts the requests in flight for each Host, so that the usage
+ * of every subscription can be reported.
+ */
+public class HostConnectionLimiter {
+
+    private final int maxPerHost;
+    private final long timeout;
+
+    private final ConcurrentMap<String, Semaphore> permits =
+            new ConcurrentHashMap<String, Semaphore>();
+
+    /**
+     * Constructs a new limiter.
+     * 
+     * @param maxPerHost The maximum number of requests in flight for one Host, or 0 to only
+     *        count requests without limiting them.
+     * @param timeout The maximum time (in milliseconds) to wait for a permit, or 0 to wait
+     *        indefinitely.
+     */
+    public HostConnectionLimiter(int maxPerHost, long timeout) {
+        this.maxPerHost = maxPerHost > 0 ? maxPerHost : 0;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Waits for a permit to send a request to the specified Host.
+     * 
+     * @param host The Host header of the request.
+     * @throws ClientException If no permit became available within the timeout, or the thread was
+     *         interrupted while waiting.
+     */
+    public void acquire(String host) {
+        Semaphore semaphore = getPermits(host);
+        try {
+            if (timeout <= 0) {
+                semaphore.acquire();
+            } else if (!semaphore.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new ClientException("Timeout waiting for a connection to " + host + " ("
+                        + maxPerHost + " requests in flight)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted waiting for a connection to " + host, e);
+        }
+    }
+
+    /**
+     * Returns a permit acquired with {@link #acquire(String)}.
+     * 
+     * @param host The Host header of the request.
+     */
+    public void release(String host) {
+        getPermits(host).release();
+    }
+
+    /**
+     * Returns the usage of the budget of the specified Host. Connections are pooled across Hosts,
+     * so no connections are reported as available.
+     * 
+     * @param host The Host.
+     * @return A snapshot of the budget usage.
+     */
+    public PoolStats getStats(String host) {
+        Semaphore semaphore = permits.get(host);
+        if (semaphore == null) {
+            return new PoolStats(0, 0, 0, maxPerHost);
+        }
+        return new PoolStats(getPermitCount() - semaphore.availablePermits(), 0,
+                semaphore.getQueueLength(), maxPerHost);
+    }
+
+    private Semaphore getPermits(String host) {
+        Semaphore semaphore = permits.get(host);
+        if (semaphore == null) {
+            Semaphore created = new Semaphore(getPermitCount(), true);
+            semaphore = permits.putIfAbsent(host, created);
+            if (semaphore == null) {
+                semaphore = created;
+            }
+        }
+        return semaphore;
+    }
+
+    private int getPermitCount() {
+        return maxPerHost > 0 ? maxPerHost : Integer.MAX_VALUE;
+    }
+
+}
@@ -1,7 +1,6 @@
 package com.netease.cloud.http;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.util.Map.Entry;
 
@@ -13,7 +12,6 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.BufferedHttpEntity;
-import org.apache.http.entity.StringEntity;
 
 import com.netease.cloud.exception.ClientException;
 
@@ -119,18 +117,14 @@ public class HttpRequestFactory {
     }
 
     /**
-     * Utility function for creating a new StringEntity and wrapping any errors as an
-     * ClientException.
+     * Utility function for creating a new UTF-8 encoded entity. The body is encoded the same way
+     * it is hashed for the Content-MD5 part of the signature, from a pooled buffer.
      * 
      * @param s The string contents of the returned HTTP entity.
-     * @return A new StringEntity with the specified contents.
+     * @return A new Utf8StringEntity with the specified contents.
      */
     private HttpEntity newStringEntity(String s) {
-        try {
-            return new StringEntity(s);
-        } catch (UnsupportedEncodingException e) {
-            throw new ClientException("Unable to create HTTP entity: " + e.getMessage(), e);
-        }
+        return new Utf8StringEntity(s);
     }
 
     /**
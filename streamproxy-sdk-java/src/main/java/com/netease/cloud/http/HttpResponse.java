@@ -1,32 +1,32 @@
 package com.netease.cloud.http;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.apache.http.client.methods.HttpRequestBase;
-
 /**
  * Represents an HTTP response returned by an service in response to a service request.
+ * <p>
+ * Responses are created by an {@link HttpTransport}, so they don't depend on the HTTP library the
+ * transport is built on.
  */
 public class HttpResponse {
 
     private final Request request;
-    private final HttpRequestBase httpRequest;
 
     private String statusText;
     private int statusCode;
     private String content;
+    private InputStream contentStream;
     private Map<String, String> headers = new HashMap<String, String>();
 
     /**
      * Constructs a new HttpResponse associated with the specified request.
      * 
      * @param request The associated request that generated this response.
-     * @param httpRequest The underlying http request that generated this response.
      */
-    public HttpResponse(Request request, HttpRequestBase httpRequest) {
+    public HttpResponse(Request request) {
         this.request = request;
-        this.httpRequest = httpRequest;
     }
 
     /**
@@ -38,15 +38,6 @@ public class HttpResponse {
         return request;
     }
 
-    /**
-     * Returns the original http request associated with this response.
-     * 
-     * @return The original http request associated with this response.
-     */
-    public HttpRequestBase getHttpRequest() {
-        return httpRequest;
-    }
-
     /**
      * Returns the HTTP headers returned with this response.
      * 
@@ -84,6 +75,44 @@ public class HttpResponse {
         return content;
     }
 
+    /**
+     * Sets the input stream containing the undecoded response content.
+     * 
+     * @param contentStream The input stream containing the response content.
+     */
+    public void setContentStream(InputStream contentStream) {
+        this.contentStream = contentStream;
+    }
+
+    /**
+     * Returns the input stream containing the undecoded response content, or null if the response
+     * has no entity. The stream is only valid while the response is being handled.
+     * 
+     * @return The input stream containing the response content.
+     */
+    public InputStream getContentStream() {
+        return contentStream;
+    }
+
+    /**
+     * Returns the length of the response content as announced by the Content-Length header, or -1
+     * if it is unknown.
+     * 
+     * @return The length of the response content in bytes.
+     */
+    public long getContentLength() {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (Headers.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                try {
+                    return Long.parseLong(header.getValue().trim());
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * Sets the HTTP status text returned with this response.
      * 
@@ -0,0 +1,24 @@
+package com.netease.cloud.http;
+
+/**
+ * Responsible for handling an HTTP response and returning an object of type T. Handlers read the
+ * response content directly from {@link HttpResponse#getContentStream()}, so the body is decoded
+ * exactly once and never buffered as a String.
+ * <p>
+ * This class is only intended for internal use inside the client libraries.
+ * 
+ * @param <T> The output type resulting from handling a response.
+ */
+public interface HttpResponseHandler<T> {
+
+    /**
+     * Accepts an HTTP response object, and returns an object of type T. The content stream is
+     * closed by the caller once this method returns.
+     * 
+     * @param response The HTTP response to handle, as received from a service.
+     * @return An object of type T, as defined by individual implementations.
+     * @throws Exception If any problems are encountered handling the response.
+     */
+    public T handle(HttpResponse response) throws Exception;
+
+}
@@ -0,0 +1,53 @@
+package com.netease.cloud.http;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Sends requests over the wire on behalf of a {@link com.netease.cloud.client.NeteaseHttpClient}.
+ * <p>
+ * The client keeps retries, signing, throttling and per Host limits for itself and only asks the
+ * transport to send one attempt of a request and hand back the response. The default transport is
+ * {@link ApacheHttpTransport}, which sends every request on a pooled HTTP/1.1 connection; other
+ * transports, such as the {@code java.net.http} one of {@link JdkHttpTransportFactory} on JDK 11
+ * and later, can be plugged in with
+ * {@link com.netease.cloud.config.ClientConfiguration#setTransportFactory}. Transports only deal in
+ * the SDK's {@link Request} and {@link HttpResponse}, so they may use any HTTP library.
+ * <p>
+ * Implementations must be thread safe.
+ */
+public interface HttpTransport {
+
+    /**
+     * Sends the request and returns the response with its content still unread. The caller closes
+     * {@link HttpResponse#getContentStream()} once the response has been handled, which must
+     * release any connection or stream the response holds.
+     * 
+     * @param request The request to send, already signed.
+     * @return The response.
+     * @throws IOException If the request could not be sent or no response was received.
+     */
+    public HttpResponse execute(Request request) throws IOException;
+
+    /**
+     * Returns the usage of all connections of this transport.
+     * 
+     * @return A snapshot of the connection usage.
+     */
+    public PoolStats getPoolStats();
+
+    /**
+     * Returns the usage of the connections to the specified endpoint.
+     * 
+     * @param endpoint The endpoint, including the protocol.
+     * @return A snapshot of the connection usage of the endpoint.
+     */
+    public PoolStats getPoolStats(URI endpoint);
+
+    /**
+     * Closes all connections of this transport. Once shut down the transport cannot send more
+     * requests.
+     */
+    public void shutdown();
+
+}
@@ -0,0 +1,21 @@
+package com.netease.cloud.http;
+
+import com.netease.cloud.config.ClientConfiguration;
+
+/**
+ * Creates the {@link HttpTransport} of a client.
+ * 
+ * @see ClientConfiguration#getTransportFactory()
+ */
+public interface HttpTransportFactory {
+
+    /**
+     * Creates a new transport configured by the client configuration (ex: timeouts, connection
+     * limits, etc).
+     * 
+     * @param config The client configuration.
+     * @return The new transport.
+     */
+    public HttpTransport createTransport(ClientConfiguration config);
+
+}
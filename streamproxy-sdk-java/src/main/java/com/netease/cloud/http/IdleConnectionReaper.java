@@ -1,89 +1,185 @@
 package com.netease.cloud.http;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.conn.ClientConnectionManager;
 
+import com.netease.cloud.config.ClientConfiguration;
+
 /**
- * Daemon thread to periodically check connection pools for idle connections.
+ * Periodically checks connection pools for idle connections on a daemon thread.
  * <p>
  * Connections sitting around idle in the HTTP connection pool for too long will eventually be
  * terminated by the end of the connection, and will go into CLOSE_WAIT. If this happens, sockets
  * will sit around in CLOSE_WAIT, still using resources on the client side to manage that socket.
  * Many sockets stuck in CLOSE_WAIT can prevent the OS from creating new connections.
  * <p>
- * This class closes idle connections before they can move into the CLOSE_WAIT state.
+ * This class closes idle connections before they can move into the CLOSE_WAIT state, and closes
+ * connections that outlived their time to live. Each registered connection manager is reaped on
+ * its own schedule, taken from its {@link ClientConfiguration}. The reaper thread is started when
+ * the first connection manager is registered and stopped when the last one is removed, so it does
+ * not outlive the clients using it.
+ * <p>
+ * Registration is guarded by a {@link ReentrantLock} rather than a monitor, so that clients
+ * created or shut down on virtual threads don't pin their carrier thread.
  */
-public class IdleConnectionReaper extends Thread {
+public class IdleConnectionReaper {
 
-    /** The period between invocations of the idle connection reaper. */
-    private static final int PERIOD_MILLISECONDS = 1000 * 60 * 1;
+    /** The registered connection managers and their scheduled reaping tasks. */
+    private static final ConcurrentMap<ClientConnectionManager, ScheduledFuture<?>>
+            connectionManagers =
+                    new ConcurrentHashMap<ClientConnectionManager, ScheduledFuture<?>>();
 
-    /**
-     * The list of registered connection managers, whose connections will be periodically checked
-     * and idle connections closed.
-     */
-    private static ArrayList<ClientConnectionManager> connectionManagers =
-            new ArrayList<ClientConnectionManager>();
+    /** Guards the registration of connection managers and the reaper thread. */
+    private static final ReentrantLock lock = new ReentrantLock();
 
-    /** Singleton instance of the connection reaper. */
-    private static IdleConnectionReaper instance;
+    /** The reaper thread, null while no connection manager is registered. */
+    private static ScheduledExecutorService executor;
 
     /** Shared log for any errors during connection reaping. */
     static final Log log = LogFactory.getLog(IdleConnectionReaper.class);
 
-    /** Private constructor - singleton pattern. */
-    private IdleConnectionReaper() {
-        super("java-sdk-http-connection-reaper");
-        setDaemon(true);
-        start();
+    /** Private constructor - static methods only. */
+    private IdleConnectionReaper() {}
+
+    /**
+     * Registers a connection manager to be reaped every minute, closing connections idle for more
+     * than a minute.
+     * 
+     * @param connectionManager The connection manager.
+     */
+    public static void registerConnectionManager(ClientConnectionManager connectionManager) {
+        registerConnectionManager(connectionManager,
+                ClientConfiguration.DEFAULT_CONNECTION_IDLE_TIMEOUT,
+                ClientConfiguration.DEFAULT_CONNECTION_IDLE_TIMEOUT);
     }
 
-    public static synchronized void registerConnectionManager(
-            ClientConnectionManager connectionManager) {
-        if (instance == null)
-            instance = new IdleConnectionReaper();
-        connectionManagers.add(connectionManager);
+    /**
+     * Registers a connection manager to be reaped as configured by the client configuration.
+     * 
+     * @param connectionManager The connection manager.
+     * @param config The configuration of the client owning the connection manager.
+     * @see ClientConfiguration#getConnectionIdleTimeout()
+     * @see ClientConfiguration#getConnectionReapInterval()
+     */
+    public static void registerConnectionManager(ClientConnectionManager connectionManager,
+            ClientConfiguration config) {
+        long idleTimeout = config.getConnectionIdleTimeout();
+        long interval = config.getConnectionReapInterval();
+        if (interval <= 0) {
+            interval = idleTimeout > 0 ? Math.max(1000, idleTimeout / 2) : 0;
+        }
+        if (interval <= 0 && config.getConnectionTTL() > 0) {
+            interval = Math.max(1000, config.getConnectionTTL() / 2);
+        }
+        registerConnectionManager(connectionManager, idleTimeout, interval);
     }
 
-    public static synchronized void removeConnectionManager(
-            ClientConnectionManager connectionManager) {
-        connectionManagers.remove(connectionManager);
+    /**
+     * Registers a connection manager to be reaped at a fixed interval. Every pass closes expired
+     * connections and connections that have been idle for longer than the idle timeout.
+     * 
+     * @param connectionManager The connection manager.
+     * @param idleTimeout The time (in milliseconds) a connection may stay idle, or 0 to keep idle
+     *        connections open.
+     * @param interval The time (in milliseconds) between two passes, or 0 to not reap the
+     *        connection manager.
+     */
+    public static void registerConnectionManager(
+            final ClientConnectionManager connectionManager, final long idleTimeout,
+            long interval) {
+        if (interval <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            register(connectionManager, idleTimeout, interval);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    @Override
-    public void run() {
-        while (true) {
-            try {
-                Thread.sleep(PERIOD_MILLISECONDS);
-
-                // Copy the list of managed ConnectionManagers to avoid possible
-                // ConcurrentModificationExceptions if registerConnectionManager
-                // or
-                // removeConnectionManager are called while we're iterating
-                // (rather
-                // than block/lock while this loop executes).
-                @SuppressWarnings({"unchecked", "static-access"})
-                List<ClientConnectionManager> connectionManagers =
-                        (List<ClientConnectionManager>) this.connectionManagers.clone();
-                for (ClientConnectionManager connectionManager : connectionManagers) {
-                    // When we release connections, the connection manager
-                    // leaves them
-                    // open so they can be reused. We want to close out any idle
-                    // connections so that they don't sit around in CLOSE_WAIT.
-                    try {
-                        connectionManager.closeIdleConnections(60, TimeUnit.SECONDS);
-                    } catch (Throwable t) {
-                        log.warn("Unable to close idle connections", t);
+    private static void register(final ClientConnectionManager connectionManager,
+            final long idleTimeout, long interval) {
+        if (connectionManagers.containsKey(connectionManager)) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "java-sdk-http-connection-reaper");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        ScheduledFuture<?> task = executor.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                // When we release connections, the connection manager leaves them open so they
+                // can be reused. We want to close out any idle connections so that they don't sit
+                // around in CLOSE_WAIT.
+                try {
+                    connectionManager.closeExpiredConnections();
+                    if (idleTimeout > 0) {
+                        connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
                     }
+                } catch (Throwable t) {
+                    log.warn("Unable to close idle connections", t);
                 }
-            } catch (Throwable t) {
-                log.warn("Unable to close idle connections", t);
             }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        connectionManagers.put(connectionManager, task);
+    }
+
+    /**
+     * Stops reaping a connection manager. The reaper thread is stopped once no connection manager
+     * is left.
+     * 
+     * @param connectionManager The connection manager.
+     */
+    public static void removeConnectionManager(ClientConnectionManager connectionManager) {
+        lock.lock();
+        try {
+            ScheduledFuture<?> task = connectionManagers.remove(connectionManager);
+            if (task != null) {
+                task.cancel(false);
+            }
+            if (connectionManagers.isEmpty() && executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        } finally {
+            lock.unlock();
         }
     }
+
+    /**
+     * Stops reaping all connection managers and stops the reaper thread. Intended for containers
+     * that unload the SDK without shutting down every client.
+     */
+    public static void shutdown() {
+        lock.lock();
+        try {
+            for (ScheduledFuture<?> task : connectionManagers.values()) {
+                task.cancel(false);
+            }
+            connectionManagers.clear();
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
 }
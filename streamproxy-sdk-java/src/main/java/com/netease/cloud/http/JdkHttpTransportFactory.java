@@ -0,0 +1,78 @@
+package com.netease.cloud.http;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+import com.netease.cloud.config.ClientConfiguration;
+import com.netease.cloud.exception.ClientException;
+
+/**
+ * Creates transports sending requests over HTTP/1.1 with the {@code java.net.http} client of JDK 11
+ * and later.
+ * <p>
+ * The SDK targets Java 6, so the transport itself is only compiled into META-INF/versions/11 of
+ * the multi-release jar built with the multi-release profile. This factory looks it up by
+ * reflection, and fails to create transports on older runtimes or with the plain jar.
+ * <p>
+ * Requests name their subscription in the Host header, which {@code java.net.http} only sends when
+ * the JVM is started with {@code -Djdk.httpclient.allowRestrictedHeaders=host}. The property
+ * applies to every {@code java.net.http} user of the JVM, so the SDK does not set it; transports
+ * fail to be created without it.
+ */
+public class JdkHttpTransportFactory implements HttpTransportFactory {
+
+    private static final String TRANSPORT_CLASS = "com.netease.cloud.http.JdkHttpTransport";
+
+    /** The constructor of the transport, or null if the transport is not available. */
+    private static final Constructor<?> CONSTRUCTOR;
+
+    static {
+        Constructor<?> constructor = null;
+        try {
+            constructor =
+                    Class.forName(TRANSPORT_CLASS).getDeclaredConstructor(
+                            ClientConfiguration.class);
+        } catch (Exception e) {
+            // Older runtime, or not the multi-release jar
+            constructor = null;
+        } catch (LinkageError e) {
+            constructor = null;
+        }
+        CONSTRUCTOR = constructor;
+    }
+
+    /**
+     * Returns whether the runtime and the SDK jar provide the {@code java.net.http} transport.
+     * 
+     * @return True if this factory can create transports.
+     */
+    public static boolean isSupported() {
+        return CONSTRUCTOR != null;
+    }
+
+    /**
+     * @throws ClientException If the runtime is older than JDK 11, the SDK jar is not the
+     *         multi-release jar, or {@code java.net.http} does not allow the Host header.
+     */
+    public HttpTransport createTransport(ClientConfiguration config) {
+        if (CONSTRUCTOR == null) {
+            throw new ClientException("The java.net.http transport requires JDK 11 or later and "
+                    + "the multi-release jar of the SDK");
+        }
+        try {
+            return (HttpTransport) CONSTRUCTOR.newInstance(config);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ClientException("Unable to create the java.net.http transport", cause);
+        } catch (Exception e) {
+            throw new ClientException("Unable to create the java.net.http transport", e);
+        }
+    }
+
+}
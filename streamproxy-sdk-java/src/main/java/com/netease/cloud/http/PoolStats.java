@@ -0,0 +1,62 @@
+package com.netease.cloud.http;
+
+/**
+ * A snapshot of the usage of a connection pool, or of the connection budget of one route or Host.
+ */
+public class PoolStats {
+
+    private final int leased;
+    private final int available;
+    private final int pending;
+    private final int max;
+
+    public PoolStats(int leased, int available, int pending, int max) {
+        this.leased = leased;
+        this.available = available;
+        this.pending = pending;
+        this.max = max;
+    }
+
+    /**
+     * Returns the number of connections currently in use by a request.
+     * 
+     * @return The number of leased connections.
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * Returns the number of idle connections kept open for reuse.
+     * 
+     * @return The number of available connections.
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * Returns the number of requests waiting for a connection.
+     * 
+     * @return The number of pending requests.
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Returns the maximum number of connections, or 0 if there is no limit.
+     * 
+     * @return The maximum number of connections.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "{leased: " + leased + ", available: " + available + ", pending: " + pending
+                + ", max: " + max + "}";
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.netease.cloud.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.params.ConnPerRoute;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.impl.conn.tsccm.ConnPoolByRoute;
+import org.apache.http.impl.conn.tsccm.RouteSpecificPool;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+
+/**
+ * Thread-safe connection manager that can report how its pool is used, in total and per route.
+ * <p>
+ * The pool is guarded by HttpClient's pool lock, a {@link java.util.concurrent.locks.Lock}, and
+ * requests waiting for a connection park on one of its conditions, so virtual threads waiting for
+ * a connection don't pin their carrier thread. The statistics are read under the same lock.
+ */
+public class StatsClientConnManager extends ThreadSafeClientConnManager {
+
+    /**
+     * Time (in nanoseconds) the last connection request of each thread waited for a connection.
+     * This is not a cache: it hands one value from the lease to the transport within a single
+     * request, on the thread running it, so it stays correct when every request runs on a new
+     * virtual thread. Such a thread only pays for one small slot.
+     */
+    private final ThreadLocal<long[]> leaseTime = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[] {-1};
+        }
+    };
+
+    public StatsClientConnManager() {
+        this(0);
+    }
+
+    /**
+     * Constructs a connection manager whose connections are not reused once they are older than
+     * the specified time to live.
+     * 
+     * @param connTTL The maximum lifetime (in milliseconds) of a connection, or 0 for no limit.
+     */
+    public StatsClientConnManager(long connTTL) {
+        super(SchemeRegistryFactory.createDefault(), connTTL > 0 ? connTTL : -1,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected ConnPoolByRoute createConnectionPool(long connTTL, TimeUnit connTTLTimeUnit) {
+        return new StatsConnPool(connOperator, connPerRoute, 20, connTTL, connTTLTimeUnit);
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+        final ClientConnectionRequest request = super.requestConnection(route, state);
+        return new ClientConnectionRequest() {
+            public ManagedClientConnection getConnection(long timeout, TimeUnit tunit)
+                    throws InterruptedException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.getConnection(timeout, tunit);
+                } finally {
+                    leaseTime.get()[0] = System.nanoTime() - start;
+                }
+            }
+
+            public void abortRequest() {
+                request.abortRequest();
+            }
+        };
+    }
+
+    /**
+     * Returns, and clears, the time the last connection request of the calling thread waited for
+     * a pooled connection. HttpClient leases connections on the thread executing the request, so
+     * this is the lease time of the request the thread just sent.
+     * 
+     * @return The lease time (in nanoseconds), or -1 if the thread leased no connection since the
+     *         last call.
+     */
+    public long takeLeaseTime() {
+        long[] time = leaseTime.get();
+        long lease = time[0];
+        time[0] = -1;
+        return lease;
+    }
+
+    /**
+     * Returns the usage of the whole pool.
+     * 
+     * @return A snapshot of the pool usage.
+     */
+    public PoolStats getTotalStats() {
+        return ((StatsConnPool) pool).getTotalStats();
+    }
+
+    /**
+     * Returns the usage of the connections to the specified route.
+     * 
+     * @param route The route.
+     * @return A snapshot of the route usage.
+     */
+    public PoolStats getStats(HttpRoute route) {
+        return ((StatsConnPool) pool).getStats(route);
+    }
+
+    /**
+     * Connection pool exposing its bookkeeping under the pool lock.
+     */
+    private static class StatsConnPool extends ConnPoolByRoute {
+
+        StatsConnPool(ClientConnectionOperator operator, ConnPerRoute connPerRoute,
+                int maxTotalConnections, long connTTL, TimeUnit connTTLTimeUnit) {
+            super(operator, connPerRoute, maxTotalConnections, connTTL, connTTLTimeUnit);
+        }
+
+        PoolStats getTotalStats() {
+            Lock lock = getLock();
+            lock.lock();
+            try {
+                return new PoolStats(leasedConnections.size(), freeConnections.size(),
+                        waitingThreads.size(), maxTotalConnections);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        PoolStats getStats(HttpRoute route) {
+            Lock lock = getLock();
+            lock.lock();
+            try {
+                StatsRouteSpecificPool routePool =
+                        (StatsRouteSpecificPool) getRoutePool(route, false);
+                int max = connPerRoute.getMaxForRoute(route);
+                if (routePool == null) {
+                    return new PoolStats(0, 0, 0, max);
+                }
+                int available = routePool.getFreeCount();
+                return new PoolStats(routePool.getEntryCount() - available, available,
+                        routePool.getWaitingCount(), max);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        protected RouteSpecificPool newRouteSpecificPool(HttpRoute route) {
+            return new StatsRouteSpecificPool(route, connPerRoute);
+        }
+    }
+
+    /**
+     * Route pool exposing its free and waiting counts. Only accessed under the pool lock.
+     */
+    private static class StatsRouteSpecificPool extends RouteSpecificPool {
+
+        StatsRouteSpecificPool(HttpRoute route, ConnPerRoute connPerRoute) {
+            super(route, connPerRoute);
+        }
+
+        int getFreeCount() {
+            return freeEntries.size();
+        }
+
+        int getWaitingCount() {
+            return waitingThreads.size();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.netease.cloud.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.protocol.HTTP;
+
+import com.netease.cloud.util.BufferPool;
+import com.netease.cloud.util.Utf8Utils;
+
+/**
+ * A repeatable entity sending a string as UTF-8. Unlike {@link org.apache.http.entity.StringEntity}
+ * it doesn't keep the byte form of the string: the string is encoded into a pooled buffer each time
+ * the entity is written, and the buffer is returned to the pool right after.
+ */
+public class Utf8StringEntity extends AbstractHttpEntity {
+
+    private final String content;
+    private final int contentLength;
+
+    /**
+     * Constructs a new entity sending the specified string.
+     * 
+     * @param content The string.
+     */
+    public Utf8StringEntity(String content) {
+        this.content = content;
+        this.contentLength = Utf8Utils.encodedLength(content);
+        setContentType(HTTP.PLAIN_TEXT_TYPE + HTTP.CHARSET_PARAM + HTTP.UTF_8);
+    }
+
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public InputStream getContent() throws IOException {
+        byte[] bytes = new byte[contentLength];
+        Utf8Utils.encode(content, bytes, 0);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    public void writeTo(OutputStream outstream) throws IOException {
+        if (outstream == null) {
+            throw new IllegalArgumentException("Output stream may not be null");
+        }
+        byte[] buffer = BufferPool.acquire(contentLength);
+        try {
+            outstream.write(buffer, 0, Utf8Utils.encode(content, buffer, 0));
+            outstream.flush();
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    public boolean isStreaming() {
+        return false;
+    }
+
+}
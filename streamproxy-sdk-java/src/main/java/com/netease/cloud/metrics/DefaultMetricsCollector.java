@@ -0,0 +1,153 @@
+package com.netease.cloud.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the metrics of a client in memory: a counter or a {@link LatencyHistogram} for every
+ * metric of every operation, both per subscription and aggregated over all subscriptions.
+ * <p>
+ * Every histogram takes about 4 KB. Clients reading thousands of subscriptions can keep only the
+ * aggregates by turning off per subscription series.
+ */
+public class DefaultMetricsCollector implements MetricsCollector {
+
+    private final boolean perSubscription;
+
+    private final ConcurrentMap<MetricKey, AtomicLong> counters =
+            new ConcurrentHashMap<MetricKey, AtomicLong>();
+    private final ConcurrentMap<MetricKey, LatencyHistogram> timers =
+            new ConcurrentHashMap<MetricKey, LatencyHistogram>();
+
+    /**
+     * Constructs a collector keeping series per subscription.
+     */
+    public DefaultMetricsCollector() {
+        this(true);
+    }
+
+    /**
+     * Constructs a collector.
+     * 
+     * @param perSubscription Whether to keep series per subscription in addition to the
+     *        aggregates over all subscriptions.
+     */
+    public DefaultMetricsCollector(boolean perSubscription) {
+        this.perSubscription = perSubscription;
+    }
+
+    public void increment(Metric metric, String operation, String subscription, long count) {
+        counterFor(new MetricKey(metric, operation, null)).addAndGet(count);
+        if (perSubscription && subscription != null) {
+            counterFor(new MetricKey(metric, operation, subscription)).addAndGet(count);
+        }
+    }
+
+    public void recordTime(Metric metric, String operation, String subscription, long nanos) {
+        histogramFor(new MetricKey(metric, operation, null)).record(nanos);
+        if (perSubscription && subscription != null) {
+            histogramFor(new MetricKey(metric, operation, subscription)).record(nanos);
+        }
+    }
+
+    /**
+     * Returns the value of a counter.
+     * 
+     * @param metric The counter.
+     * @param operation The operation.
+     * @param subscription The subscription, or null for the total over all subscriptions.
+     * @return The value of the counter, 0 if it was never incremented.
+     */
+    public long getCount(Metric metric, String operation, String subscription) {
+        AtomicLong counter = counters.get(new MetricKey(metric, operation, subscription));
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Returns the histogram of a timer.
+     * 
+     * @param metric The timer.
+     * @param operation The operation.
+     * @param subscription The subscription, or null for all subscriptions.
+     * @return The histogram, or null if nothing was recorded.
+     */
+    public LatencyHistogram getHistogram(Metric metric, String operation, String subscription) {
+        return timers.get(new MetricKey(metric, operation, subscription));
+    }
+
+    /**
+     * Returns the keys of all counters.
+     * 
+     * @return The keys of the counters.
+     */
+    public List<MetricKey> getCounterKeys() {
+        return Collections.unmodifiableList(new ArrayList<MetricKey>(counters.keySet()));
+    }
+
+    /**
+     * Returns the keys of all timers.
+     * 
+     * @return The keys of the timers.
+     */
+    public List<MetricKey> getTimerKeys() {
+        return Collections.unmodifiableList(new ArrayList<MetricKey>(timers.keySet()));
+    }
+
+    /**
+     * Returns the value of a counter.
+     * 
+     * @param key The key of the counter.
+     * @return The value of the counter, 0 if it was never incremented.
+     */
+    public long getCount(MetricKey key) {
+        AtomicLong counter = counters.get(key);
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Returns the histogram of a timer.
+     * 
+     * @param key The key of the timer.
+     * @return The histogram, or null if nothing was recorded.
+     */
+    public LatencyHistogram getHistogram(MetricKey key) {
+        return timers.get(key);
+    }
+
+    /**
+     * Clears all counters and histograms.
+     */
+    public void reset() {
+        counters.clear();
+        timers.clear();
+    }
+
+    private AtomicLong counterFor(MetricKey key) {
+        AtomicLong counter = counters.get(key);
+        if (counter == null) {
+            AtomicLong created = new AtomicLong();
+            counter = counters.putIfAbsent(key, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    private LatencyHistogram histogramFor(MetricKey key) {
+        LatencyHistogram histogram = timers.get(key);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = timers.putIfAbsent(key, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+}
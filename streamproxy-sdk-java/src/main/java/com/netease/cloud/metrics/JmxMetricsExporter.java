@@ -0,0 +1,187 @@
+package com.netease.cloud.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import com.netease.cloud.exception.ClientException;
+
+/**
+ * Exposes the metrics of a {@link DefaultMetricsCollector} as one MBean of the platform MBean
+ * server, named {@code com.netease.cloud.streamproxy:type=Metrics,name=<name>}.
+ * <p>
+ * Every counter is an attribute named after its key ("get_logs.all.REQUESTS"). Every timer is a
+ * set of attributes named after its key followed by count, mean, p50, p90, p99, p999 and max, the
+ * durations being in microseconds. The attributes follow the series of the collector as they
+ * appear. The "reset" operation clears the collector.
+ */
+public class JmxMetricsExporter implements DynamicMBean {
+
+    private static final String[] TIMER_STATS = {"count", "mean", "p50", "p90", "p99", "p999",
+            "max"};
+
+    private final DefaultMetricsCollector collector;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs an exporter of the collector's metrics.
+     * 
+     * @param collector The collector.
+     * @param name The name distinguishing the MBean from those of other clients.
+     */
+    public JmxMetricsExporter(DefaultMetricsCollector collector, String name) {
+        this.collector = collector;
+        try {
+            this.objectName =
+                    new ObjectName("com.netease.cloud.streamproxy:type=Metrics,name="
+                            + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new ClientException("Invalid metrics MBean name " + name, e);
+        }
+    }
+
+    /**
+     * Registers the MBean with the platform MBean server.
+     * 
+     * @return This exporter.
+     * @throws ClientException If the MBean could not be registered.
+     */
+    public JmxMetricsExporter register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            throw new ClientException("Unable to register metrics MBean " + objectName, e);
+        }
+        return this;
+    }
+
+    /**
+     * Unregisters the MBean from the platform MBean server.
+     */
+    public void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new ClientException("Unable to unregister metrics MBean " + objectName, e);
+        }
+    }
+
+    /**
+     * Returns the name of the MBean.
+     * 
+     * @return The name of the MBean.
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        for (MetricKey key : collector.getCounterKeys()) {
+            if (key.toString().equals(attribute)) {
+                return collector.getCount(key);
+            }
+        }
+        int dot = attribute.lastIndexOf('.');
+        if (dot > 0) {
+            String name = attribute.substring(0, dot);
+            String stat = attribute.substring(dot + 1);
+            for (MetricKey key : collector.getTimerKeys()) {
+                if (key.toString().equals(name)) {
+                    return getStat(collector.getHistogram(key), stat, attribute);
+                }
+            }
+        }
+        throw new AttributeNotFoundException("No metric " + attribute);
+    }
+
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // Skipped, as required by the DynamicMBean contract
+            }
+        }
+        return list;
+    }
+
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metric " + attribute.getName() + " is read only");
+    }
+
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    public Object invoke(String actionName, Object[] params, String[] signature)
+            throws MBeanException, ReflectionException {
+        if ("reset".equals(actionName)) {
+            collector.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+        for (MetricKey key : collector.getCounterKeys()) {
+            attributes.add(new MBeanAttributeInfo(key.toString(), "long", "Counter "
+                    + key.getMetric(), true, false, false));
+        }
+        for (MetricKey key : collector.getTimerKeys()) {
+            for (String stat : TIMER_STATS) {
+                attributes.add(new MBeanAttributeInfo(key + "." + stat, "count".equals(stat)
+                        ? "long" : "double", stat + " of timer " + key.getMetric()
+                        + ("count".equals(stat) ? "" : " (microseconds)"), true, false, false));
+            }
+        }
+        MBeanOperationInfo reset =
+                new MBeanOperationInfo("reset", "Clears all metrics", new MBeanParameterInfo[0],
+                        "void", MBeanOperationInfo.ACTION);
+        return new MBeanInfo(getClass().getName(), "StreamProxy client metrics",
+                attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null,
+                new MBeanOperationInfo[] {reset}, null);
+    }
+
+    private static Object getStat(LatencyHistogram histogram, String stat, String attribute)
+            throws AttributeNotFoundException {
+        if ("count".equals(stat)) {
+            return histogram.getCount();
+        } else if ("mean".equals(stat)) {
+            return histogram.getMean() / 1000;
+        } else if ("p50".equals(stat)) {
+            return histogram.getValueAtPercentile(50) / 1000.0;
+        } else if ("p90".equals(stat)) {
+            return histogram.getValueAtPercentile(90) / 1000.0;
+        } else if ("p99".equals(stat)) {
+            return histogram.getValueAtPercentile(99) / 1000.0;
+        } else if ("p999".equals(stat)) {
+            return histogram.getValueAtPercentile(99.9) / 1000.0;
+        } else if ("max".equals(stat)) {
+            return histogram.getMax() / 1000.0;
+        }
+        throw new AttributeNotFoundException("No metric " + attribute);
+    }
+
+}
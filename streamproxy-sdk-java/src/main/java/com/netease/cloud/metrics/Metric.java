@@ -0,0 +1,61 @@
+package com.netease.cloud.metrics;
+
+/**
+ * The metrics reported to a {@link MetricsCollector}. Counters are reported with
+ * {@link MetricsCollector#increment(Metric, String, String, long)} and timers, in nanoseconds,
+ * with {@link MetricsCollector#recordTime(Metric, String, String, long)}.
+ */
+public enum Metric {
+
+    /** Attempts sent, retries included. */
+    REQUESTS(false),
+
+    /** Retries of failed attempts. */
+    RETRIES(false),
+
+    /** Calls that failed after all their attempts, with an exception or an error response. */
+    ERRORS(false),
+
+    /** Throttling responses (429 and 503). */
+    THROTTLED(false),
+
+    /** Bytes of request bodies sent. */
+    BYTES_SENT(false),
+
+    /** Bytes of response bodies received, as sent on the wire before any decompression. */
+    BYTES_RECEIVED(false),
+
+    /** Time of a whole call, from the first attempt to the decoded result, retries included. */
+    TOTAL_TIME(true),
+
+    /** Time of one attempt until the response headers arrived. */
+    REQUEST_TIME(true),
+
+    /** Time spent waiting for the per Host budget, rate limits and concurrency limit. */
+    QUEUE_TIME(true),
+
+    /** Time spent waiting for a pooled connection, or opening one. */
+    CONNECTION_LEASE_TIME(true),
+
+    /** Time spent signing a request. */
+    SIGNING_TIME(true),
+
+    /** Time spent reading and decoding a response body. */
+    PARSE_TIME(true);
+
+    private final boolean timer;
+
+    private Metric(boolean timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Returns whether the metric is a timer rather than a counter.
+     * 
+     * @return True if the metric records durations.
+     */
+    public boolean isTimer() {
+        return timer;
+    }
+
+}
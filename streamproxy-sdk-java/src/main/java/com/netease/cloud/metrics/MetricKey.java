@@ -0,0 +1,65 @@
+package com.netease.cloud.metrics;
+
+/**
+ * Identifies the series of one metric for one operation and subscription. A null operation or
+ * subscription stands for the aggregate over all operations or subscriptions.
+ */
+public final class MetricKey {
+
+    private final Metric metric;
+    private final String operation;
+    private final String subscription;
+
+    public MetricKey(Metric metric, String operation, String subscription) {
+        this.metric = metric;
+        this.operation = operation;
+        this.subscription = subscription;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getSubscription() {
+        return subscription;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = metric.hashCode();
+        hash = 31 * hash + (operation == null ? 0 : operation.hashCode());
+        hash = 31 * hash + (subscription == null ? 0 : subscription.hashCode());
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MetricKey)) {
+            return false;
+        }
+        MetricKey other = (MetricKey) obj;
+        return metric == other.metric
+                && (operation == null ? other.operation == null : operation
+                        .equals(other.operation))
+                && (subscription == null ? other.subscription == null : subscription
+                        .equals(other.subscription));
+    }
+
+    /**
+     * Returns the key as "operation.subscription.METRIC", with "all" standing for a null
+     * operation or subscription.
+     */
+    @Override
+    public String toString() {
+        return (operation == null ? "all" : operation) + "."
+                + (subscription == null ? "all" : subscription) + "." + metric;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.netease.cloud.metrics;
+
+/**
+ * Receives the metrics of the requests of a client, for every operation (ex: get_logs) and
+ * subscription. Set one with
+ * {@link com.netease.cloud.config.ClientConfiguration#setMetricsCollector(MetricsCollector)};
+ * {@link DefaultMetricsCollector} keeps counters and latency histograms in memory and can be
+ * exported over JMX with {@link JmxMetricsExporter}.
+ * <p>
+ * Implementations are called on the request threads and must be thread safe and fast.
+ */
+public interface MetricsCollector {
+
+    /**
+     * Adds to a counter.
+     * 
+     * @param metric The counter.
+     * @param operation The operation, or null if the event isn't tied to an operation.
+     * @param subscription The subscription, or null if the event isn't tied to a subscription.
+     * @param count The amount to add.
+     */
+    public void increment(Metric metric, String operation, String subscription, long count);
+
+    /**
+     * Records a duration.
+     * 
+     * @param metric The timer.
+     * @param operation The operation, or null if the event isn't tied to an operation.
+     * @param subscription The subscription, or null if the event isn't tied to a subscription.
+     * @param nanos The duration, in nanoseconds.
+     */
+    public void recordTime(Metric metric, String operation, String subscription, long nanos);
+
+}
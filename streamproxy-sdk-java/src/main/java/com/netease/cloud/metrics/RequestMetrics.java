@@ -0,0 +1,68 @@
+package com.netease.cloud.metrics;
+
+import com.netease.cloud.http.Request;
+
+/**
+ * Reports the metrics of one request to a {@link MetricsCollector}, under the operation and
+ * subscription of the request. The operation is the resource path without its leading slash (ex:
+ * get_logs) and the subscription the first label of the Host header, which addresses the
+ * subscription as {@code <subscription>.c.163.com}.
+ */
+public class RequestMetrics {
+
+    private final MetricsCollector collector;
+    private final String operation;
+    private final String subscription;
+
+    private RequestMetrics(MetricsCollector collector, String operation, String subscription) {
+        this.collector = collector;
+        this.operation = operation;
+        this.subscription = subscription;
+    }
+
+    /**
+     * Returns the metrics of the request, or null if no collector is configured so that callers
+     * skip all the bookkeeping.
+     * 
+     * @param collector The collector, or null.
+     * @param request The request.
+     * @return The metrics of the request, or null.
+     */
+    public static RequestMetrics of(MetricsCollector collector, Request request) {
+        if (collector == null) {
+            return null;
+        }
+        String operation = request.getResourcePath();
+        if (operation == null || operation.length() == 0) {
+            operation = "unknown";
+        } else if (operation.startsWith("/")) {
+            operation = operation.substring(1);
+        }
+        String subscription = request.getHeaders().get("Host");
+        if (subscription != null && subscription.indexOf('.') > 0) {
+            subscription = subscription.substring(0, subscription.indexOf('.'));
+        }
+        return new RequestMetrics(collector, operation, subscription);
+    }
+
+    /**
+     * Adds to a counter of the request.
+     * 
+     * @param metric The counter.
+     * @param count The amount to add.
+     */
+    public void increment(Metric metric, long count) {
+        collector.increment(metric, operation, subscription, count);
+    }
+
+    /**
+     * Records a duration of the request.
+     * 
+     * @param metric The timer.
+     * @param nanos The duration, in nanoseconds.
+     */
+    public void recordTime(Metric metric, long nanos) {
+        collector.recordTime(metric, operation, subscription, nanos);
+    }
+
+}
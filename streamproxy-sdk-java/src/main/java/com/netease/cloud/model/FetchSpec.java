@@ -0,0 +1,18 @@
+package com.netease.cloud.model;
+
+/**
+ * One subscription to read in a batch fetch: the position to read from, the maximum number of logs
+ * to read and the subscription. The constructor takes them in the same order as
+ * {@link GetLogsRequest}.
+ * 
+ * @see com.netease.cloud.client.StreamProxyClient#getLogsBatch(java.util.List)
+ */
+public class FetchSpec extends GetLogsRequest {
+
+    public FetchSpec() {}
+
+    public FetchSpec(String position, long limit, String subscriptionName) {
+        super(position, limit, subscriptionName);
+    }
+
+}
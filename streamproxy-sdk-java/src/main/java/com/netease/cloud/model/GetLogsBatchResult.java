@@ -0,0 +1,89 @@
+package com.netease.cloud.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The outcome of a batch fetch: the page of logs of every subscription that was read successfully
+ * and the error of every subscription that failed, both keyed by subscription name in the order
+ * the subscriptions were requested.
+ */
+public class GetLogsBatchResult {
+
+    private final Map<String, LogBatch> results = new LinkedHashMap<String, LogBatch>();
+    private final Map<String, Exception> errors = new LinkedHashMap<String, Exception>();
+
+    /**
+     * Records the page of logs read from a subscription.
+     * 
+     * @param subscriptionName The subscription name.
+     * @param logBatch The page of logs.
+     */
+    public void addResult(String subscriptionName, LogBatch logBatch) {
+        results.put(subscriptionName, logBatch);
+    }
+
+    /**
+     * Records the error reading a subscription failed with.
+     * 
+     * @param subscriptionName The subscription name.
+     * @param error The error.
+     */
+    public void addError(String subscriptionName, Exception error) {
+        errors.put(subscriptionName, error);
+    }
+
+    /**
+     * Returns the pages of logs of the subscriptions that were read successfully.
+     * 
+     * @return The pages of logs, keyed by subscription name.
+     */
+    public Map<String, LogBatch> getResults() {
+        return Collections.unmodifiableMap(results);
+    }
+
+    /**
+     * Returns the errors of the subscriptions that failed.
+     * 
+     * @return The errors, keyed by subscription name.
+     */
+    public Map<String, Exception> getErrors() {
+        return Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * Returns the page of logs read from the subscription, or null if it failed.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return The page of logs.
+     */
+    public LogBatch getResult(String subscriptionName) {
+        return results.get(subscriptionName);
+    }
+
+    /**
+     * Returns the error reading the subscription failed with, or null if it succeeded.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return The error.
+     */
+    public Exception getError(String subscriptionName) {
+        return errors.get(subscriptionName);
+    }
+
+    /**
+     * Returns whether reading any subscription failed.
+     * 
+     * @return True if there are errors.
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "{results: " + results.keySet() + ", errors: " + errors.keySet() + "}";
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.netease.cloud.model;
+
+/**
+ * Container for the parameters of the get_logs operation.
+ */
+public class GetLogsRequest {
+
+    /** The position to read logs from. */
+    private String position;
+
+    /** The maximum number of logs to read. */
+    private long limit;
+
+    /** The subscription to read logs from. */
+    private String subscriptionName;
+
+    public GetLogsRequest() {}
+
+    public GetLogsRequest(String position, long limit, String subscriptionName) {
+        this.position = position;
+        this.limit = limit;
+        this.subscriptionName = subscriptionName;
+    }
+
+    /**
+     * Returns the position to read logs from.
+     * 
+     * @return The position.
+     */
+    public String getPosition() {
+        return position;
+    }
+
+    /**
+     * Sets the position to read logs from.
+     * 
+     * @param position The position.
+     */
+    public void setPosition(String position) {
+        this.position = position;
+    }
+
+    /**
+     * Sets the position to read logs from, and returns this request object.
+     * 
+     * @param position The position.
+     * @return This request object.
+     */
+    public GetLogsRequest withPosition(String position) {
+        setPosition(position);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of logs to read.
+     * 
+     * @return The limit.
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of logs to read.
+     * 
+     * @param limit The limit.
+     */
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Sets the maximum number of logs to read, and returns this request object.
+     * 
+     * @param limit The limit.
+     * @return This request object.
+     */
+    public GetLogsRequest withLimit(long limit) {
+        setLimit(limit);
+        return this;
+    }
+
+    /**
+     * Returns the subscription to read logs from.
+     * 
+     * @return The subscription name.
+     */
+    public String getSubscriptionName() {
+        return subscriptionName;
+    }
+
+    /**
+     * Sets the subscription to read logs from.
+     * 
+     * @param subscriptionName The subscription name.
+     */
+    public void setSubscriptionName(String subscriptionName) {
+        this.subscriptionName = subscriptionName;
+    }
+
+    /**
+     * Sets the subscription to read logs from, and returns this request object.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return This request object.
+     */
+    public GetLogsRequest withSubscriptionName(String subscriptionName) {
+        setSubscriptionName(subscriptionName);
+        return this;
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.netease.cloud.model;
+
+/**
+ * Container for the parameters of the get_subscription_position operation.
+ */
+public class GetSubscriptionPositionRequest {
+
+    /** The wanted log position type (ex: EARLIEST). */
+    private String positionType;
+
+    /** The subscription to look the position up in. */
+    private String subscriptionName;
+
+    public GetSubscriptionPositionRequest() {}
+
+    public GetSubscriptionPositionRequest(String positionType, String subscriptionName) {
+        this.positionType = positionType;
+        this.subscriptionName = subscriptionName;
+    }
+
+    /**
+     * Returns the wanted log position type.
+     * 
+     * @return The position type.
+     */
+    public String getPositionType() {
+        return positionType;
+    }
+
+    /**
+     * Sets the wanted log position type.
+     * 
+     * @param positionType The position type.
+     */
+    public void setPositionType(String positionType) {
+        this.positionType = positionType;
+    }
+
+    /**
+     * Sets the wanted log position type, and returns this request object.
+     * 
+     * @param positionType The position type.
+     * @return This request object.
+     */
+    public GetSubscriptionPositionRequest withPositionType(String positionType) {
+        setPositionType(positionType);
+        return this;
+    }
+
+    /**
+     * Returns the subscription to look the position up in.
+     * 
+     * @return The subscription name.
+     */
+    public String getSubscriptionName() {
+        return subscriptionName;
+    }
+
+    /**
+     * Sets the subscription to look the position up in.
+     * 
+     * @param subscriptionName The subscription name.
+     */
+    public void setSubscriptionName(String subscriptionName) {
+        this.subscriptionName = subscriptionName;
+    }
+
+    /**
+     * Sets the subscription to look the position up in, and returns this request object.
+     * 
+     * @param subscriptionName The subscription name.
+     * @return This request object.
+     */
+    public GetSubscriptionPositionRequest withSubscriptionName(String subscriptionName) {
+        setSubscriptionName(subscriptionName);
+        return this;
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.netease.cloud.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of logs returned by the get_logs operation, together with the position following the last
+ * log of the page.
+ */
+public class LogBatch {
+
+    /** The subscription the logs were read from. */
+    private String subscriptionName;
+
+    /** The decoded logs, in order. */
+    private List<String> logs = new ArrayList<String>();
+
+    /** The position following the last log of this page. */
+    private String nextPosition;
+
+    public LogBatch() {}
+
+    public LogBatch(String subscriptionName, List<String> logs, String nextPosition) {
+        this.subscriptionName = subscriptionName;
+        this.logs = logs;
+        this.nextPosition = nextPosition;
+    }
+
+    /**
+     * Returns the subscription the logs were read from.
+     * 
+     * @return The subscription name.
+     */
+    public String getSubscriptionName() {
+        return subscriptionName;
+    }
+
+    /**
+     * Sets the subscription the logs were read from.
+     * 
+     * @param subscriptionName The subscription name.
+     */
+    public void setSubscriptionName(String subscriptionName) {
+        this.subscriptionName = subscriptionName;
+    }
+
+    /**
+     * Returns the decoded logs of this page, in order. Logs that are JSON strings are returned as
+     * their string value, any other log is returned as its JSON text.
+     * 
+     * @return The logs of this page.
+     */
+    public List<String> getLogs() {
+        return logs;
+    }
+
+    /**
+     * Sets the logs of this page.
+     * 
+     * @param logs The logs of this page.
+     */
+    public void setLogs(List<String> logs) {
+        this.logs = logs;
+    }
+
+    /**
+     * Returns the position following the last log of this page, to be passed to the next get_logs
+     * call. For an empty page this is the position the page was requested from.
+     * 
+     * @return The next position.
+     */
+    public String getNextPosition() {
+        return nextPosition;
+    }
+
+    /**
+     * Sets the position following the last log of this page.
+     * 
+     * @param nextPosition The next position.
+     */
+    public void setNextPosition(String nextPosition) {
+        this.nextPosition = nextPosition;
+    }
+
+    /**
+     * Returns the number of logs in this page.
+     * 
+     * @return The number of logs.
+     */
+    public int size() {
+        return logs.size();
+    }
+
+    /**
+     * Returns whether this page contains no logs.
+     * 
+     * @return True if the page is empty.
+     */
+    public boolean isEmpty() {
+        return logs.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "{subscriptionName: " + subscriptionName + ", logs: " + logs.size()
+                + ", nextPosition: " + nextPosition + "}";
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.netease.cloud.model;
+
+/**
+ * Callback receiving the logs of a get_logs response one at a time, as they are decoded from the
+ * response stream.
+ */
+public interface LogRecordListener {
+
+    /**
+     * Invoked for every log of the response, in order. Logs that are JSON strings are passed as
+     * their string value, any other log is passed as its JSON text.
+     * 
+     * @param log The decoded log.
+     */
+    public void onLog(String log);
+
+}
@@ -0,0 +1,62 @@
+package com.netease.cloud.model;
+
+/**
+ * A position in a subscription, as returned by the get_subscription_position operation.
+ */
+public class SubscriptionPosition {
+
+    /** The subscription this position belongs to. */
+    private String subscriptionName;
+
+    /** The opaque position string to pass to get_logs. */
+    private String position;
+
+    public SubscriptionPosition() {}
+
+    public SubscriptionPosition(String subscriptionName, String position) {
+        this.subscriptionName = subscriptionName;
+        this.position = position;
+    }
+
+    /**
+     * Returns the subscription this position belongs to.
+     * 
+     * @return The subscription name.
+     */
+    public String getSubscriptionName() {
+        return subscriptionName;
+    }
+
+    /**
+     * Sets the subscription this position belongs to.
+     * 
+     * @param subscriptionName The subscription name.
+     */
+    public void setSubscriptionName(String subscriptionName) {
+        this.subscriptionName = subscriptionName;
+    }
+
+    /**
+     * Returns the opaque position string to pass to get_logs.
+     * 
+     * @return The position.
+     */
+    public String getPosition() {
+        return position;
+    }
+
+    /**
+     * Sets the opaque position string.
+     * 
+     * @param position The position.
+     */
+    public void setPosition(String position) {
+        this.position = position;
+    }
+
+    @Override
+    public String toString() {
+        return "{subscriptionName: " + subscriptionName + ", position: " + position + "}";
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.netease.cloud.model.transform;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import org.apache.http.HttpStatus;
+
+import com.netease.cloud.config.Constants;
+import com.netease.cloud.exception.ClientException;
+import com.netease.cloud.exception.ServiceException;
+import com.netease.cloud.http.HttpResponse;
+import com.netease.cloud.http.HttpResponseHandler;
+import com.netease.cloud.util.StringUtils;
+import com.netease.cloud.util.json.JSONException;
+import com.netease.cloud.util.json.JSONObject;
+import com.netease.cloud.util.json.JSONTokener;
+
+/**
+ * Base class for response handlers that decode a JSON response body into a typed result. The body
+ * is decoded straight from the response content stream; unsuccessful responses are turned into a
+ * {@link ServiceException}.
+ * 
+ * @param <T> The typed result of the response.
+ */
+public abstract class JsonResponseHandler<T> implements HttpResponseHandler<T> {
+
+    /**
+     * @see com.netease.cloud.http.HttpResponseHandler#handle(com.netease.cloud.http.HttpResponse)
+     */
+    public T handle(HttpResponse response) throws Exception {
+        if (response.getStatusCode() / 100 != HttpStatus.SC_OK / 100) {
+            throw createServiceException(response);
+        }
+
+        InputStream content = response.getContentStream();
+        if (content == null) {
+            throw new ClientException("Unable to unmarshall response: no content");
+        }
+        return unmarshall(content);
+    }
+
+    /**
+     * Decodes the content of a successful response into the typed result.
+     * 
+     * @param content The response content stream.
+     * @return The typed result.
+     * @throws Exception If the body can't be read or doesn't have the expected shape.
+     */
+    protected abstract T unmarshall(InputStream content) throws Exception;
+
+    /**
+     * Parses the whole response body into a JSONObject. Only suitable for small bodies; large
+     * bodies should be decoded incrementally.
+     * 
+     * @param content The response content stream.
+     * @return The parsed response body.
+     * @throws IOException If the content can't be decoded.
+     * @throws JSONException If the body isn't a JSON object.
+     */
+    protected JSONObject parse(InputStream content) throws IOException, JSONException {
+        return new JSONObject(new JSONTokener(new InputStreamReader(content,
+                Constants.DEFAULT_ENCODING)));
+    }
+
+    /**
+     * Creates a ServiceException describing an unsuccessful response.
+     * 
+     * @param response The unsuccessful response.
+     * @return The exception to throw.
+     */
+    protected ServiceException createServiceException(HttpResponse response) {
+        String body = null;
+        if (response.getContentStream() != null) {
+            body =
+                    new StringUtils().convertStreamToString(response.getContentStream(),
+                            response.getContentLength());
+        }
+        int statusCode = response.getStatusCode();
+        ServiceException se =
+                new ServiceException(statusCode + " " + response.getStatusText()
+                        + (body == null || body.length() == 0 ? "" : ": " + body));
+        se.setStatusCode(statusCode);
+        se.setServiceName(Constants.STREAMS_PROXY_SERVICE_NAME);
+        se.setErrorType(statusCode / 100 == 5 ? ServiceException.ErrorType.Service
+                : ServiceException.ErrorType.Client);
+        if (response.getRequest() != null) {
+            se.setResource(response.getRequest().getResourcePath());
+        }
+        return se;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.netease.cloud.model.transform;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.netease.cloud.exception.ClientException;
+import com.netease.cloud.model.LogBatch;
+import com.netease.cloud.model.LogRecordListener;
+
+/**
+ * Decodes a get_logs response into a {@link LogBatch}.
+ */
+public class LogBatchResponseHandler extends JsonResponseHandler<LogBatch> {
+
+    private static final SubscriptionLogsDecoder decoder = new SubscriptionLogsDecoder();
+
+    private final String subscriptionName;
+
+    /** The position the page was requested from. */
+    private final String position;
+
+    public LogBatchResponseHandler(String subscriptionName, String position) {
+        this.subscriptionName = subscriptionName;
+        this.position = position;
+    }
+
+    @Override
+    protected LogBatch unmarshall(InputStream content) throws Exception {
+        final List<String> logs = new ArrayList<String>();
+        String nextPosition = decoder.decode(content, new LogRecordListener() {
+            public void onLog(String log) {
+                logs.add(log);
+            }
+        });
+
+        if (nextPosition == null) {
+            if (!logs.isEmpty()) {
+                throw new ClientException("Unable to advance subscription " + subscriptionName
+                        + ": response has no position");
+            }
+            nextPosition = position;
+        }
+        return new LogBatch(subscriptionName, logs, nextPosition);
+    }
+
+}
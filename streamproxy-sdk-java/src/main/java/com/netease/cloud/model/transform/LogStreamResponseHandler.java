@@ -0,0 +1,50 @@
+package com.netease.cloud.model.transform;
+
+import java.io.InputStream;
+
+import com.netease.cloud.exception.ClientException;
+import com.netease.cloud.model.LogRecordListener;
+import com.netease.cloud.model.SubscriptionPosition;
+
+/**
+ * Streams the logs of a get_logs response to a {@link LogRecordListener} and returns the position
+ * following them.
+ */
+public class LogStreamResponseHandler extends JsonResponseHandler<SubscriptionPosition> {
+
+    private static final SubscriptionLogsDecoder decoder = new SubscriptionLogsDecoder();
+
+    private final String subscriptionName;
+
+    /** The position the page was requested from. */
+    private final String position;
+
+    private final LogRecordListener listener;
+
+    public LogStreamResponseHandler(String subscriptionName, String position,
+            LogRecordListener listener) {
+        this.subscriptionName = subscriptionName;
+        this.position = position;
+        this.listener = listener;
+    }
+
+    @Override
+    protected SubscriptionPosition unmarshall(InputStream content) throws Exception {
+        final int[] count = new int[1];
+        String nextPosition = decoder.decode(content, new LogRecordListener() {
+            public void onLog(String log) {
+                count[0]++;
+                listener.onLog(log);
+            }
+        });
+        if (nextPosition == null) {
+            if (count[0] > 0) {
+                throw new ClientException("Unable to advance subscription " + subscriptionName
+                        + ": response has no position");
+            }
+            nextPosition = position;
+        }
+        return new SubscriptionPosition(subscriptionName, nextPosition);
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.netease.cloud.model.transform;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+import com.netease.cloud.exception.ClientException;
+import com.netease.cloud.model.LogRecordListener;
+
+/**
+ * Pull decoder for get_logs response bodies. Walks the {@code subscription_logs} array straight
+ * from the response stream and emits one log at a time, so no tree of the page is ever built and
+ * peak heap doesn't grow with the requested limit.
+ * <p>
+ * Instances are stateless and may be shared between threads.
+ */
+public class SubscriptionLogsDecoder {
+
+    /** Field holding the array of logs. */
+    public static final String LOGS_FIELD = "subscription_logs";
+
+    /** Field holding the position following the last log. */
+    public static final String POSITION_FIELD = "position";
+
+    /** Shared, thread-safe factory for streaming parsers and generators. */
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Decodes a get_logs response body, handing every log to the listener in order.
+     * 
+     * @param content The response content stream. It is not closed by this method.
+     * @param listener The listener receiving the logs.
+     * @return The position following the last log, or null if the body has none.
+     * @throws IOException If the stream can't be read or isn't valid JSON.
+     */
+    public String decode(InputStream content, LogRecordListener listener) throws IOException {
+        JsonParser parser = jsonFactory.createJsonParser(content);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ClientException("Unable to decode logs: response is not a JSON object");
+            }
+
+            String position = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (LOGS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    decodeLogs(parser, listener);
+                } else if (POSITION_FIELD.equals(field) && value == JsonToken.VALUE_STRING) {
+                    position = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return position;
+        } finally {
+            parser.close();
+        }
+    }
+
+    private void decodeLogs(JsonParser parser, LogRecordListener listener) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new ClientException("Unable to decode logs: unexpected end of response");
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                listener.onLog(parser.getText());
+            } else {
+                StringWriter writer = new StringWriter();
+                JsonGenerator generator = jsonFactory.createJsonGenerator(writer);
+                generator.copyCurrentStructure(parser);
+                generator.close();
+                listener.onLog(writer.toString());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.netease.cloud.model.transform;
+
+import java.io.InputStream;
+
+import com.netease.cloud.model.SubscriptionPosition;
+import com.netease.cloud.util.json.JSONObject;
+
+/**
+ * Decodes a get_subscription_position response into a {@link SubscriptionPosition}.
+ */
+public class SubscriptionPositionResponseHandler extends JsonResponseHandler<SubscriptionPosition> {
+
+    private final String subscriptionName;
+
+    public SubscriptionPositionResponseHandler(String subscriptionName) {
+        this.subscriptionName = subscriptionName;
+    }
+
+    @Override
+    protected SubscriptionPosition unmarshall(InputStream content) throws Exception {
+        JSONObject result = parse(content);
+        return new SubscriptionPosition(subscriptionName, result.getString("position"));
+    }
+
+}
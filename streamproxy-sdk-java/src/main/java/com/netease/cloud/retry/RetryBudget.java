@@ -0,0 +1,70 @@
+package com.netease.cloud.retry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The retry tokens shared by all requests of one client. Each retry takes a token and each
+ * successful request returns one, so while an endpoint keeps failing, the client as a whole stops
+ * retrying once the budget is spent instead of multiplying its load.
+ */
+public class RetryBudget {
+
+    private final int capacity;
+    private final AtomicInteger tokens;
+
+    /**
+     * Constructs a new, full retry budget.
+     * 
+     * @param capacity The number of tokens, or 0 or less for an unlimited budget.
+     */
+    public RetryBudget(int capacity) {
+        this.capacity = capacity;
+        this.tokens = new AtomicInteger(capacity);
+    }
+
+    /**
+     * Takes a token for a retry.
+     * 
+     * @return True if a token was taken and the request may be retried.
+     */
+    public boolean tryAcquire() {
+        if (capacity <= 0) {
+            return true;
+        }
+        while (true) {
+            int current = tokens.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a token after a successful request. Must not be called for failed requests, such as
+     * ones answered with a non-retried error status, or the budget never runs out.
+     */
+    public void release() {
+        if (capacity <= 0) {
+            return;
+        }
+        while (true) {
+            int current = tokens.get();
+            if (current >= capacity || tokens.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of tokens left.
+     * 
+     * @return The number of retries the client may still make.
+     */
+    public int getAvailable() {
+        return capacity <= 0 ? Integer.MAX_VALUE : tokens.get();
+    }
+
+}
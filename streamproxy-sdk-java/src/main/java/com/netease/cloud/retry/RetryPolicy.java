@@ -0,0 +1,270 @@
+package com.netease.cloud.retry;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import javax.net.ssl.SSLException;
+
+/**
+ * Retry policy options such as the maximum number of retries, the backoff between retries and
+ * which failures are retried.
+ * <p>
+ * The delay before the n-th retry is drawn uniformly between 0 and
+ * {@code min(maxBackoff, baseDelay * 2^(n-1))} ("full jitter"), so clients that fail at the same
+ * time do not retry in lockstep.
+ * <p>
+ * All retries of a client draw from a shared retry budget of {@link #getRetryBudget()} tokens. Each
+ * retry takes one token and each successful request returns one, so a failing endpoint is not
+ * flooded with retries from every in-flight request.
+ */
+public class RetryPolicy {
+
+    /** The default maximum number of retries of a request. */
+    public static final int DEFAULT_MAX_ERROR_RETRY = 3;
+
+    /** The default base delay (in milliseconds) of the exponential backoff. */
+    public static final long DEFAULT_BASE_DELAY = 100;
+
+    /** The default maximum delay (in milliseconds) between two attempts. */
+    public static final long DEFAULT_MAX_BACKOFF = 20 * 1000;
+
+    /** The default number of retries a client may make without a successful request in between. */
+    public static final int DEFAULT_RETRY_BUDGET = 100;
+
+    /** The HTTP status codes retried by default: throttling and transient server errors. */
+    public static final Set<Integer> DEFAULT_RETRYABLE_STATUS_CODES =
+            Collections.unmodifiableSet(new HashSet<Integer>(Arrays.asList(429, 500, 502, 503,
+                    504)));
+
+    /** Source of the backoff jitter. */
+    private static final Random random = new Random();
+
+    /** The maximum number of retries of a request. */
+    private int maxErrorRetry = DEFAULT_MAX_ERROR_RETRY;
+
+    /** The base delay (in milliseconds) of the exponential backoff. */
+    private long baseDelay = DEFAULT_BASE_DELAY;
+
+    /** The maximum delay (in milliseconds) between two attempts. */
+    private long maxBackoff = DEFAULT_MAX_BACKOFF;
+
+    /** The number of retries a client may make without a successful request in between. */
+    private int retryBudget = DEFAULT_RETRY_BUDGET;
+
+    /** The HTTP status codes of responses that are retried. */
+    private Set<Integer> retryableStatusCodes = DEFAULT_RETRYABLE_STATUS_CODES;
+
+    public RetryPolicy() {}
+
+    public RetryPolicy(RetryPolicy other) {
+        this.maxErrorRetry = other.maxErrorRetry;
+        this.baseDelay = other.baseDelay;
+        this.maxBackoff = other.maxBackoff;
+        this.retryBudget = other.retryBudget;
+        this.retryableStatusCodes = other.retryableStatusCodes;
+    }
+
+    /**
+     * Returns whether a response with the specified status code may be retried.
+     * 
+     * @param statusCode The HTTP status code of the response.
+     * @return True if the response may be retried.
+     */
+    public boolean isRetryableStatusCode(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * Returns whether a request that failed with the specified exception may be retried. I/O
+     * errors and timeouts are retried; unknown hosts and SSL errors, which a retry won't fix, and
+     * interrupts are not.
+     * 
+     * @param e The exception the request failed with.
+     * @return True if the request may be retried.
+     */
+    public boolean isRetryableException(Exception e) {
+        if (!(e instanceof IOException)) {
+            return false;
+        }
+        if (e instanceof InterruptedIOException) {
+            // Timeouts are retried, interrupts are not
+            return !Thread.currentThread().isInterrupted();
+        }
+        return !(e instanceof UnknownHostException) && !(e instanceof SSLException);
+    }
+
+    /**
+     * Returns the delay before the specified retry.
+     * 
+     * @param retriesAttempted The number of retries made so far.
+     * @return The delay (in milliseconds) before the next attempt.
+     */
+    public long computeDelay(int retriesAttempted) {
+        long ceiling = baseDelay;
+        for (int i = 0; i < retriesAttempted && ceiling < maxBackoff; i++) {
+            ceiling *= 2;
+        }
+        ceiling = Math.min(ceiling, maxBackoff);
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return (long) (random.nextDouble() * ceiling);
+    }
+
+    /**
+     * Returns the maximum number of retries of a request.
+     * 
+     * @return The maximum number of retries of a request.
+     */
+    public int getMaxErrorRetry() {
+        return maxErrorRetry;
+    }
+
+    /**
+     * Sets the maximum number of retries of a request.
+     * 
+     * @param maxErrorRetry The maximum number of retries of a request, or 0 to never retry.
+     */
+    public void setMaxErrorRetry(int maxErrorRetry) {
+        this.maxErrorRetry = maxErrorRetry;
+    }
+
+    /**
+     * Sets the maximum number of retries of a request, and returns the updated RetryPolicy object.
+     * 
+     * @param maxErrorRetry The maximum number of retries of a request, or 0 to never retry.
+     * @return The updated RetryPolicy object.
+     */
+    public RetryPolicy withMaxErrorRetry(int maxErrorRetry) {
+        setMaxErrorRetry(maxErrorRetry);
+        return this;
+    }
+
+    /**
+     * Returns the base delay (in milliseconds) of the exponential backoff.
+     * 
+     * @return The base delay (in milliseconds) of the exponential backoff.
+     */
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    /**
+     * Sets the base delay (in milliseconds) of the exponential backoff.
+     * 
+     * @param baseDelay The base delay (in milliseconds) of the exponential backoff.
+     */
+    public void setBaseDelay(long baseDelay) {
+        this.baseDelay = baseDelay;
+    }
+
+    /**
+     * Sets the base delay (in milliseconds) of the exponential backoff, and returns the updated
+     * RetryPolicy object.
+     * 
+     * @param baseDelay The base delay (in milliseconds) of the exponential backoff.
+     * @return The updated RetryPolicy object.
+     */
+    public RetryPolicy withBaseDelay(long baseDelay) {
+        setBaseDelay(baseDelay);
+        return this;
+    }
+
+    /**
+     * Returns the maximum delay (in milliseconds) between two attempts.
+     * 
+     * @return The maximum delay (in milliseconds) between two attempts.
+     */
+    public long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Sets the maximum delay (in milliseconds) between two attempts.
+     * 
+     * @param maxBackoff The maximum delay (in milliseconds) between two attempts.
+     */
+    public void setMaxBackoff(long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Sets the maximum delay (in milliseconds) between two attempts, and returns the updated
+     * RetryPolicy object.
+     * 
+     * @param maxBackoff The maximum delay (in milliseconds) between two attempts.
+     * @return The updated RetryPolicy object.
+     */
+    public RetryPolicy withMaxBackoff(long maxBackoff) {
+        setMaxBackoff(maxBackoff);
+        return this;
+    }
+
+    /**
+     * Returns the number of retries a client may make without a successful request in between.
+     * 
+     * @return The retry budget of a client.
+     */
+    public int getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Sets the number of retries a client may make without a successful request in between.
+     * 
+     * @param retryBudget The retry budget of a client, or 0 for no budget.
+     */
+    public void setRetryBudget(int retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * Sets the number of retries a client may make without a successful request in between, and
+     * returns the updated RetryPolicy object.
+     * 
+     * @param retryBudget The retry budget of a client, or 0 for no budget.
+     * @return The updated RetryPolicy object.
+     */
+    public RetryPolicy withRetryBudget(int retryBudget) {
+        setRetryBudget(retryBudget);
+        return this;
+    }
+
+    /**
+     * Returns the HTTP status codes of responses that are retried.
+     * 
+     * @return The HTTP status codes of responses that are retried.
+     */
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    /**
+     * Sets the HTTP status codes of responses that are retried.
+     * 
+     * @param retryableStatusCodes The HTTP status codes of responses that are retried.
+     */
+    public void setRetryableStatusCodes(Set<Integer> retryableStatusCodes) {
+        this.retryableStatusCodes =
+                Collections.unmodifiableSet(new HashSet<Integer>(retryableStatusCodes));
+    }
+
+    /**
+     * Sets the HTTP status codes of responses that are retried, and returns the updated
+     * RetryPolicy object.
+     * 
+     * @param retryableStatusCodes The HTTP status codes of responses that are retried.
+     * @return The updated RetryPolicy object.
+     */
+    public RetryPolicy withRetryableStatusCodes(Set<Integer> retryableStatusCodes) {
+        setRetryableStatusCodes(retryableStatusCodes);
+        return this;
+    }
+
+}
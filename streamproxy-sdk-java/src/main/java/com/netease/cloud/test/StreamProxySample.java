@@ -1,8 +1,10 @@
 package com.netease.cloud.test;
 
 import com.netease.cloud.client.StreamProxyClient;
-import com.netease.cloud.util.json.JSONArray;
-import com.netease.cloud.util.json.JSONObject;
+import com.netease.cloud.model.GetLogsRequest;
+import com.netease.cloud.model.GetSubscriptionPositionRequest;
+import com.netease.cloud.model.LogBatch;
+import com.netease.cloud.model.SubscriptionPosition;
 
 public class StreamProxySample {
 
@@ -18,21 +20,20 @@ public class StreamProxySample {
         try {
             // get subscription position
             client = new StreamProxyClient(accessKey, secretKey);
-            String ret = client.getSubscriptionPosition(positionType, subscriptionName);
-            System.out.println(ret);
+            SubscriptionPosition position =
+                    client.getSubscriptionPosition(new GetSubscriptionPositionRequest(
+                            positionType, subscriptionName));
+            System.out.println(position);
 
             // get needed logs
-            JSONObject retObject = new JSONObject(ret);
-            String logsPosition = retObject.getJSONObject("result").getString("position");
             long limit = 1;
-            String logs = client.getLogs(logsPosition, limit, subscriptionName);
+            LogBatch logs =
+                    client.getLogs(new GetLogsRequest(position.getPosition(), limit,
+                            subscriptionName));
             System.out.println(logs);
 
             // cal number of needs logs
-            JSONObject logsObject = new JSONObject(logs);
-            JSONArray subscription_logs =
-                    logsObject.getJSONObject("result").getJSONArray("subscription_logs");
-            System.out.println(subscription_logs.length());
+            System.out.println(logs.size());
         } catch (Exception e) {
             System.out.println("Execute error " + e.getMessage());
         } finally {
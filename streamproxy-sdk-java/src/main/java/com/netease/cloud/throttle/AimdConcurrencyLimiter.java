@@ -0,0 +1,153 @@
+package com.netease.cloud.throttle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.netease.cloud.exception.ClientException;
+
+/**
+ * Adaptive limit on the number of requests in flight, adjusted by additive increase and
+ * multiplicative decrease (AIMD).
+ * <p>
+ * Every request that completes quickly raises the limit by 1/limit, so the limit grows by about one
+ * per round-trip while the endpoint keeps up. A throttling response, a failed request or a latency
+ * well above the best recent latency halves the limit, at most once per round-trip so that one
+ * overload does not collapse the limit once for every request in flight.
+ * <p>
+ * Waiting requests park on a {@link ReentrantLock} condition rather than an object monitor, so
+ * that virtual threads waiting for the limit don't pin their carrier thread.
+ */
+public class AimdConcurrencyLimiter {
+
+    /** Factor the limit is multiplied by on congestion. */
+    private static final double BACKOFF_RATIO = 0.5;
+
+    /** A latency this many times the baseline is taken as a congestion signal. */
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    /** Guards the fields below. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled when a request completes. */
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+
+    /** The best recent latency (in nanoseconds), drifting up slowly; 0 until the first sample. */
+    private long baselineLatency;
+
+    /** The time (System.nanoTime()) the limit was last decreased. */
+    private long lastDecrease;
+
+    /**
+     * Constructs a new limiter.
+     * 
+     * @param initialLimit The initial number of requests allowed in flight.
+     * @param minLimit The lowest the limit is decreased to.
+     * @param maxLimit The highest the limit is increased to.
+     */
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecrease = System.nanoTime();
+    }
+
+    /**
+     * Waits until a request may be sent.
+     * 
+     * @param timeout The maximum time (in milliseconds) to wait, or 0 to wait indefinitely.
+     * @throws ClientException If the timeout elapsed or the thread was interrupted while waiting.
+     */
+    public void acquire(long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (timeout <= 0) {
+                    released.await();
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ClientException("Timeout waiting for the adaptive concurrency limit ("
+                            + (int) limit + " requests in flight)");
+                }
+                released.awaitNanos(remaining);
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted waiting for the adaptive concurrency limit", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reports the outcome of a request acquired with {@link #acquire(long)} and adjusts the limit.
+     * 
+     * @param congested Whether the endpoint signalled overload (throttling response or failure).
+     * @param latencyNanos The time until the response arrived, or a negative value if unknown.
+     */
+    public void release(boolean congested, long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            long now = System.nanoTime();
+            if (!congested && latencyNanos > 0) {
+                if (baselineLatency == 0 || latencyNanos < baselineLatency) {
+                    baselineLatency = latencyNanos;
+                } else {
+                    baselineLatency += baselineLatency / 100;
+                }
+                congested = latencyNanos > baselineLatency * LATENCY_TOLERANCE;
+            }
+
+            if (congested) {
+                if (now - lastDecrease > Math.max(baselineLatency, 1)) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastDecrease = now;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current number of requests allowed in flight.
+     * 
+     * @return The current limit.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     * 
+     * @return The number of requests in flight.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
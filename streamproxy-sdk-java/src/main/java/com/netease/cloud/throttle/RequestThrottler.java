@@ -0,0 +1,121 @@
+package com.netease.cloud.throttle;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.netease.cloud.config.ClientConfiguration;
+import com.netease.cloud.exception.ClientException;
+
+/**
+ * Client side throttling of the requests of one client. Before every attempt a request takes a
+ * token from the global, the per subscription (Host) and the per credential token buckets that are
+ * configured, then waits for the adaptive concurrency limit if it is enabled. Throttling responses
+ * (429 and 503), failed requests and latency increases reported through
+ * {@link #release(int, long)} lower the concurrency limit.
+ * 
+ * @see ClientConfiguration#getMaxRequestsPerSecond()
+ * @see ClientConfiguration#getMaxRequestsPerSecondPerHost()
+ * @see ClientConfiguration#getMaxRequestsPerSecondPerCredential()
+ * @see ClientConfiguration#isAdaptiveConcurrency()
+ */
+public class RequestThrottler {
+
+    private final TokenBucket globalBucket;
+    private final double perHostRate;
+    private final double perCredentialRate;
+    private final AimdConcurrencyLimiter concurrencyLimiter;
+    private final long timeout;
+
+    private final ConcurrentMap<String, TokenBucket> hostBuckets =
+            new ConcurrentHashMap<String, TokenBucket>();
+    private final ConcurrentMap<String, TokenBucket> credentialBuckets =
+            new ConcurrentHashMap<String, TokenBucket>();
+
+    /**
+     * Constructs a throttler configured by the client configuration.
+     * 
+     * @param config The client configuration.
+     */
+    public RequestThrottler(ClientConfiguration config) {
+        double globalRate = config.getMaxRequestsPerSecond();
+        this.globalBucket = globalRate > 0 ? new TokenBucket(globalRate, globalRate) : null;
+        this.perHostRate = config.getMaxRequestsPerSecondPerHost();
+        this.perCredentialRate = config.getMaxRequestsPerSecondPerCredential();
+        int maxConnections = Math.max(1, config.getMaxConnections());
+        this.concurrencyLimiter =
+                config.isAdaptiveConcurrency() ? new AimdConcurrencyLimiter(
+                        Math.max(1, maxConnections / 2), 1, maxConnections) : null;
+        this.timeout = config.getConnectionTimeout();
+    }
+
+    /**
+     * Returns whether any throttling is configured.
+     * 
+     * @return True if requests are throttled.
+     */
+    public boolean isEnabled() {
+        return globalBucket != null || perHostRate > 0 || perCredentialRate > 0
+                || concurrencyLimiter != null;
+    }
+
+    /**
+     * Waits until a request may be sent. Every successful call must be followed by a call to
+     * {@link #release(int, long)}. Each rate limit and the concurrency limit is waited for at most
+     * the connection timeout of the client.
+     * 
+     * @param host The Host header of the request.
+     * @param accessKeyId The access key the request is signed with, or null.
+     * @throws ClientException If a limit was not available within the timeout, or the thread was
+     *         interrupted while waiting.
+     */
+    public void acquire(String host, String accessKeyId) {
+        if (globalBucket != null) {
+            globalBucket.acquire(timeout);
+        }
+        if (perHostRate > 0 && host != null) {
+            getBucket(hostBuckets, host, perHostRate).acquire(timeout);
+        }
+        if (perCredentialRate > 0 && accessKeyId != null) {
+            getBucket(credentialBuckets, accessKeyId, perCredentialRate).acquire(timeout);
+        }
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.acquire(timeout);
+        }
+    }
+
+    /**
+     * Reports the outcome of a request.
+     * 
+     * @param statusCode The HTTP status code of the response, or -1 if no response was received.
+     * @param latencyNanos The time until the response arrived, or -1 if no response was received.
+     */
+    public void release(int statusCode, long latencyNanos) {
+        if (concurrencyLimiter != null) {
+            boolean congested = statusCode < 0 || statusCode == 429 || statusCode == 503;
+            concurrencyLimiter.release(congested, latencyNanos);
+        }
+    }
+
+    /**
+     * Returns the current adaptive concurrency limit, or -1 if adaptive concurrency is disabled.
+     * 
+     * @return The current concurrency limit.
+     */
+    public int getConcurrencyLimit() {
+        return concurrencyLimiter != null ? concurrencyLimiter.getLimit() : -1;
+    }
+
+    private static TokenBucket getBucket(ConcurrentMap<String, TokenBucket> buckets, String key,
+            double rate) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            TokenBucket created = new TokenBucket(rate, rate);
+            bucket = buckets.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+        return bucket;
+    }
+
+}
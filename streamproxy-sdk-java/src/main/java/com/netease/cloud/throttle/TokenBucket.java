@@ -0,0 +1,106 @@
+package com.netease.cloud.throttle;
+
+import java.util.concurrent.TimeUnit;
+
+import com.netease.cloud.exception.ClientException;
+
+/**
+ * Token bucket rate limiter. Tokens are added continuously at a fixed rate up to a burst capacity;
+ * every request takes one token and waits for it if the bucket is empty.
+ * <p>
+ * Waiting callers reserve their token before sleeping, so they are served in arrival order at the
+ * configured rate instead of waking up together.
+ */
+public class TokenBucket {
+
+    /** Tokens added per nanosecond. */
+    private final double ratePerNano;
+
+    /** The maximum number of stored tokens. */
+    private final double capacity;
+
+    /** The number of stored tokens; negative while callers are waiting for reserved tokens. */
+    private double tokens;
+
+    /** The time (System.nanoTime()) tokens were last added. */
+    private long lastRefill;
+
+    /**
+     * Constructs a new, full token bucket.
+     * 
+     * @param permitsPerSecond The rate tokens are added at.
+     * @param burst The maximum number of stored tokens.
+     */
+    public TokenBucket(double permitsPerSecond, double burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.ratePerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes a token, waiting until one is available.
+     * 
+     * @param timeout The maximum time (in milliseconds) to wait, or 0 to wait indefinitely.
+     * @throws ClientException If no token becomes available within the timeout, or the thread was
+     *         interrupted while waiting.
+     */
+    public void acquire(long timeout) {
+        long waitNanos = reserve(timeout > 0 ? TimeUnit.MILLISECONDS.toNanos(timeout) : -1);
+        if (waitNanos < 0) {
+            throw new ClientException("Timeout waiting for the request rate limit");
+        }
+        if (waitNanos == 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted waiting for the request rate limit", e);
+        }
+    }
+
+    /**
+     * Takes a token if one is available right away.
+     * 
+     * @return True if a token was taken.
+     */
+    public synchronized boolean tryAcquire() {
+        refill(System.nanoTime());
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Takes a token, possibly ahead of time. No token is taken if the caller would have to wait
+     * longer than the maximum wait, so that callers giving up do not delay the ones behind them.
+     * 
+     * @param maxWaitNanos The maximum time (in nanoseconds) to wait, or -1 for no maximum.
+     * @return The time (in nanoseconds) the caller has to wait before using the token, or -1 if no
+     *         token was taken.
+     */
+    private synchronized long reserve(long maxWaitNanos) {
+        refill(System.nanoTime());
+        long waitNanos = tokens >= 1 ? 0 : (long) ((1 - tokens) / ratePerNano);
+        if (maxWaitNanos >= 0 && waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+            lastRefill = now;
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.netease.cloud.util;
+
+/**
+ * A pool of reusable byte buffers for request and response bodies.
+ * <p>
+ * Buffers come in power of two size classes from 1 KB to 1 MB, each class keeping a small free
+ * list. The free lists are striped by thread so that threads sending requests concurrently rarely
+ * contend on the same lock, while a buffer acquired on one thread may still be released on
+ * another. Requests for more than the largest size class are served with a plain allocation and
+ * are not pooled.
+ * <p>
+ * A buffer must not be used after it has been released.
+ */
+public class BufferPool {
+
+    private static final int MIN_SHIFT = 10;
+    private static final int MAX_SHIFT = 20;
+
+    /** The smallest buffer handed out by the pool. */
+    public static final int MIN_BUFFER_SIZE = 1 << MIN_SHIFT;
+
+    /** The largest buffer kept by the pool. */
+    public static final int MAX_BUFFER_SIZE = 1 << MAX_SHIFT;
+
+    /** The number of buffers each stripe keeps for each size class. */
+    private static final int BUFFERS_PER_CLASS = 4;
+
+    private static final Stripe[] stripes = createStripes();
+
+    /** Private constructor - static methods only. */
+    private BufferPool() {}
+
+    /**
+     * Returns a buffer of at least the specified size, taken from the pool if one is free.
+     * 
+     * @param minSize The minimum size of the buffer.
+     * @return A buffer, whose content is undefined.
+     */
+    public static byte[] acquire(int minSize) {
+        int sizeClass = sizeClass(minSize);
+        if (sizeClass < 0) {
+            return new byte[minSize];
+        }
+        byte[] buffer = stripe().poll(sizeClass);
+        return buffer != null ? buffer : new byte[MIN_BUFFER_SIZE << sizeClass];
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers that aren't of a pooled size, and buffers beyond the
+     * capacity of the pool, are left to the garbage collector.
+     * 
+     * @param buffer The buffer, or null.
+     */
+    public static void release(byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int length = buffer.length;
+        if (length < MIN_BUFFER_SIZE || length > MAX_BUFFER_SIZE || (length & (length - 1)) != 0) {
+            return;
+        }
+        stripe().offer(Integer.numberOfTrailingZeros(length) - MIN_SHIFT, buffer);
+    }
+
+    /**
+     * Returns a buffer of at least the specified size holding the content of the specified buffer,
+     * and releases the specified buffer.
+     * 
+     * @param buffer The buffer to grow.
+     * @param length The number of bytes of the buffer to keep.
+     * @param minSize The minimum size of the new buffer.
+     * @return The new buffer.
+     */
+    public static byte[] grow(byte[] buffer, int length, int minSize) {
+        byte[] grown = acquire(minSize);
+        System.arraycopy(buffer, 0, grown, 0, length);
+        release(buffer);
+        return grown;
+    }
+
+    /**
+     * Returns the index of the smallest size class holding the specified size, or -1 if the size
+     * is too large to be pooled.
+     */
+    private static int sizeClass(int size) {
+        if (size <= MIN_BUFFER_SIZE) {
+            return 0;
+        }
+        if (size > MAX_BUFFER_SIZE) {
+            return -1;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    private static Stripe stripe() {
+        long id = Thread.currentThread().getId();
+        return stripes[(int) ((id ^ (id >>> 16)) & (stripes.length - 1))];
+    }
+
+    private static Stripe[] createStripes() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        Stripe[] stripes = new Stripe[count * 2];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        return stripes;
+    }
+
+    /** The free lists of one stripe, one bounded stack per size class. */
+    private static class Stripe {
+        private final byte[][][] free = new byte[MAX_SHIFT - MIN_SHIFT + 1][BUFFERS_PER_CLASS][];
+        private final int[] counts = new int[MAX_SHIFT - MIN_SHIFT + 1];
+
+        synchronized byte[] poll(int sizeClass) {
+            if (counts[sizeClass] == 0) {
+                return null;
+            }
+            int index = --counts[sizeClass];
+            byte[] buffer = free[sizeClass][index];
+            free[sizeClass][index] = null;
+            return buffer;
+        }
+
+        synchronized void offer(int sizeClass, byte[] buffer) {
+            if (counts[sizeClass] < BUFFERS_PER_CLASS) {
+                free[sizeClass][counts[sizeClass]++] = buffer;
+            }
+        }
+    }
+
+}
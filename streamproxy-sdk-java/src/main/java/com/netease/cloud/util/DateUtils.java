@@ -1,20 +1,18 @@
 package com.netease.cloud.util;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
-import java.util.TimeZone;
 
+import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
 /**
  * Utilities for parsing and formatting dates.
  * <p>
- * Note that this class doesn't use static methods because of the synchronization issues with
- * SimpleDateFormat. This lets synchronization be done on a per-object level, instead of on a
- * per-class level.
+ * All formatters used by this class are immutable and thread-safe, so a single instance may be
+ * shared between threads.
  */
 public class DateUtils {
 
@@ -29,9 +27,16 @@ public class DateUtils {
     private static final DateTimeFormatter rfc822DateFormat = DateTimeFormat.forPattern(
             "EEE, dd MMM yyyy HH:mm:ss ZZZ").withLocale(Locale.US);
 
-    // RFC1123 日期格式
-    private static final SimpleDateFormat rfc1123DateFormat = new SimpleDateFormat(
-            "EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
+    // RFC1123 日期格式, 东八区时间
+    private static final DateTimeFormatter rfc1123DateFormat = DateTimeFormat
+            .forPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'").withLocale(Locale.US)
+            .withZone(DateTimeZone.forOffsetHours(8));
+
+    /**
+     * The most recently formatted RFC 1123 date. Date headers only have second precision, so all
+     * threads share one formatted value per second instead of formatting on every request.
+     */
+    private static volatile CachedDate cachedRfc1123Date = new CachedDate(Long.MIN_VALUE, null);
 
     /** RFC 822 format */
     /**
@@ -90,12 +95,44 @@ public class DateUtils {
      * Formats the specified date as an RFC 1123 string.
      * 
      * @param date The date to format.
-     * @return The RFC 822 string representing the specified date.
+     * @return The RFC 1123 string representing the specified date.
      */
     public String formatRfc1123Date(Date date) {
-        rfc1123DateFormat.setTimeZone(TimeZone.getTimeZone("GMT+8"));
-        String rfc1123Datestr = rfc1123DateFormat.format(date);
-        return rfc1123Datestr.substring(0, rfc1123Datestr.indexOf("+"));
+        return formatRfc1123Date(date.getTime());
+    }
+
+    /**
+     * Formats the specified time as an RFC 1123 string. The result is cached for the current
+     * second, so concurrent callers formatting the current time share one string and normally
+     * don't format at all.
+     * 
+     * @param millis The time to format, in milliseconds since the epoch.
+     * @return The RFC 1123 string representing the specified time.
+     */
+    public String formatRfc1123Date(long millis) {
+        long second = millis >= 0 ? millis / 1000 : (millis - 999) / 1000;
+        CachedDate cached = cachedRfc1123Date;
+        if (cached.second == second) {
+            return cached.value;
+        }
+
+        String value = rfc1123DateFormat.print(second * 1000);
+        // Racing threads may both format, but every published value is complete and correct
+        if (second > cached.second) {
+            cachedRfc1123Date = new CachedDate(second, value);
+        }
+        return value;
+    }
+
+    /** An immutable formatted date together with the second it represents. */
+    private static class CachedDate {
+        private final long second;
+        private final String value;
+
+        CachedDate(long second, String value) {
+            this.second = second;
+            this.value = value;
+        }
     }
 
 }
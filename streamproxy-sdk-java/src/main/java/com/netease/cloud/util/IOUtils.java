@@ -0,0 +1,118 @@
+package com.netease.cloud.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+
+/**
+ * Utilities for reading whole streams, such as response bodies, into memory.
+ * <p>
+ * The content is read as bytes into a single buffer, sized up front from the Content-Length when
+ * it is known, and decoded at most once. Content decoded into a String is read into buffers from
+ * the {@link BufferPool}. Unlike reading through a {@link java.io.BufferedReader}
+ * the content is returned unchanged, line endings included.
+ */
+public class IOUtils {
+
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    /** The largest buffer pre-allocated from an announced content length. */
+    private static final int MAX_PRESIZE = 16 * 1024 * 1024;
+
+    /** Private constructor - static methods only. */
+    private IOUtils() {}
+
+    /**
+     * Reads the stream to its end and returns its content. The stream is not closed.
+     * 
+     * @param in The stream to read.
+     * @param contentLength The expected number of bytes, or -1 if unknown. Only used to size the
+     *        buffer, the stream is always read to its end.
+     * @return The content of the stream.
+     * @throws IOException If the stream can't be read.
+     */
+    public static byte[] toByteArray(InputStream in, long contentLength) throws IOException {
+        Content content = read(in, contentLength);
+        if (content.length == content.bytes.length) {
+            return content.bytes;
+        }
+        byte[] bytes = new byte[content.length];
+        System.arraycopy(content.bytes, 0, bytes, 0, content.length);
+        return bytes;
+    }
+
+    /**
+     * Reads the stream to its end and decodes its content. The stream is not closed.
+     * 
+     * @param in The stream to read.
+     * @param contentLength The expected number of bytes, or -1 if unknown. Only used to size the
+     *        buffer, the stream is always read to its end.
+     * @param charset The charset of the content.
+     * @return The decoded content of the stream.
+     * @throws IOException If the stream can't be read.
+     * @throws UnsupportedEncodingException If the charset isn't supported.
+     */
+    public static String toString(InputStream in, long contentLength, String charset)
+            throws IOException {
+        // The bytes don't outlive the decoding, so they are read into pooled buffers
+        byte[] buffer = BufferPool.acquire(initialSize(contentLength));
+        try {
+            int length = 0;
+            while (true) {
+                if (length == buffer.length) {
+                    buffer = BufferPool.grow(buffer, length, length * 2);
+                }
+                int n = in.read(buffer, length, buffer.length - length);
+                if (n < 0) {
+                    return new String(buffer, 0, length, charset);
+                }
+                length += n;
+            }
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Reads the whole stream into a buffer sized from the content length, growing the buffer if
+     * the stream turns out to be longer.
+     */
+    private static Content read(InputStream in, long contentLength) throws IOException {
+        byte[] buffer = new byte[initialSize(contentLength)];
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) {
+                // Check for the end of the stream before growing a buffer sized to the content
+                int b = in.read();
+                if (b < 0) {
+                    return new Content(buffer, length);
+                }
+                byte[] grown = new byte[Math.max(DEFAULT_BUFFER_SIZE, buffer.length * 2)];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+                buffer[length++] = (byte) b;
+            }
+            int n = in.read(buffer, length, buffer.length - length);
+            if (n < 0) {
+                return new Content(buffer, length);
+            }
+            length += n;
+        }
+    }
+
+    private static int initialSize(long contentLength) {
+        return contentLength < 0 ? DEFAULT_BUFFER_SIZE : (int) Math.min(contentLength, MAX_PRESIZE);
+    }
+
+    /** The bytes read from a stream, at the start of a possibly larger buffer. */
+    private static class Content {
+        final byte[] bytes;
+        final int length;
+
+        Content(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+    }
+
+}
@@ -1,9 +1,9 @@
 package com.netease.cloud.util;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -11,9 +11,17 @@ import org.apache.commons.codec.binary.Hex;
 
 /**
  * Utility methods for computing MD5 sums.
+ * <p>
+ * Digests of in-memory data are computed directly with a pooled {@link MessageDigest}, without
+ * wrapping the data in streams or copying it into intermediate buffers.
  */
 public class Md5Utils {
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /** Pooled MD5 digests, reset by every digest computed with them. */
+    private static final ObjectPool<MessageDigest> digests = new ObjectPool<MessageDigest>(4);
+
     /**
      * Computes the MD5 hash of the data in the given input stream and returns it as an array of
      * bytes.
@@ -52,9 +60,78 @@ public class Md5Utils {
      * @throws IOException IOException.
      */
     public static byte[] computeMD5Hash(byte[] data) throws NoSuchAlgorithmException, IOException {
-        return computeMD5Hash(new ByteArrayInputStream(data));
+        return computeMD5Hash(data, 0, data.length);
+    }
+
+    /**
+     * Computes the MD5 hash of a range of the given data and returns it as an array of bytes.
+     * 
+     * @param data Needed to compute with MD5.
+     * @param offset The offset of the first byte to hash.
+     * @param length The number of bytes to hash.
+     * @return byte[] Computed with MD5.
+     * @throws NoSuchAlgorithmException NoSuchAlgorithmException.
+     */
+    public static byte[] computeMD5Hash(byte[] data, int offset, int length)
+            throws NoSuchAlgorithmException {
+        MessageDigest messageDigest = acquireDigest();
+        try {
+            messageDigest.update(data, offset, length);
+            return messageDigest.digest();
+        } finally {
+            releaseDigest(messageDigest);
+        }
+    }
+
+    /**
+     * Computes the MD5 hash of the remaining bytes of the given buffer and returns it as an array
+     * of bytes. The buffer's position is advanced to its limit.
+     * 
+     * @param data Needed to compute with MD5.
+     * @return byte[] Computed with MD5.
+     * @throws NoSuchAlgorithmException NoSuchAlgorithmException.
+     */
+    public static byte[] computeMD5Hash(ByteBuffer data) throws NoSuchAlgorithmException {
+        MessageDigest messageDigest = acquireDigest();
+        try {
+            messageDigest.update(data);
+            return messageDigest.digest();
+        } finally {
+            releaseDigest(messageDigest);
+        }
     }
 
+    /**
+     * Computes the MD5 hash of a range of the given data and returns it as a lower case hex
+     * string.
+     * 
+     * @param data Needed to compute with MD5.
+     * @param offset The offset of the first byte to hash.
+     * @param length The number of bytes to hash.
+     * @return String Hex encoded MD5 hash.
+     * @throws NoSuchAlgorithmException NoSuchAlgorithmException.
+     */
+    public static String computeMD5Hex(byte[] data, int offset, int length)
+            throws NoSuchAlgorithmException {
+        return toHex(computeMD5Hash(data, offset, length));
+    }
+
+    /**
+     * Computes the MD5 hash of the UTF-8 form of the given text and returns it as a lower case hex
+     * string. The text is encoded into a pooled buffer, so its byte form is never allocated.
+     * 
+     * @param text Needed to compute with MD5.
+     * @return String Hex encoded MD5 hash.
+     * @throws NoSuchAlgorithmException NoSuchAlgorithmException.
+     */
+    public static String computeMD5Hex(String text) throws NoSuchAlgorithmException {
+        byte[] buffer = BufferPool.acquire(Utf8Utils.encodedLength(text));
+        try {
+            return computeMD5Hex(buffer, 0, Utf8Utils.encode(text, buffer, 0));
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
 
     /**
      * Get hex string
@@ -70,4 +147,27 @@ public class Md5Utils {
 
         return new String(Hex.encodeHex(raw));
     }
+
+    /**
+     * Encodes the bytes as a lower case hex string, without the intermediate objects of a general
+     * purpose encoder. The buffer is a short-lived local, cheaper than any cache of it.
+     */
+    private static String toHex(byte[] raw) {
+        char[] buffer = new char[raw.length * 2];
+        for (int i = 0, j = 0; i < raw.length; i++) {
+            buffer[j++] = HEX_DIGITS[(raw[i] >> 4) & 0x0F];
+            buffer[j++] = HEX_DIGITS[raw[i] & 0x0F];
+        }
+        return new String(buffer);
+    }
+
+    private static MessageDigest acquireDigest() throws NoSuchAlgorithmException {
+        MessageDigest messageDigest = digests.poll();
+        return messageDigest != null ? messageDigest : MessageDigest.getInstance("MD5");
+    }
+
+    private static void releaseDigest(MessageDigest messageDigest) {
+        messageDigest.reset();
+        digests.offer(messageDigest);
+    }
 }
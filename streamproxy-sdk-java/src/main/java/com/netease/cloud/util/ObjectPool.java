@@ -0,0 +1,83 @@
+package com.netease.cloud.util;
+
+/**
+ * A bounded pool of reusable objects, such as initialized digests and Macs, that are expensive to
+ * create but only usable by one thread at a time.
+ * <p>
+ * Like {@link BufferPool}, the free lists are striped by thread so that threads rarely contend on
+ * the same lock, while an object taken on one thread may be returned on another. Unlike a
+ * {@link ThreadLocal} cache, the pooled objects outlive the threads using them: a request running
+ * on its own short-lived thread, such as a virtual thread, still finds an initialized object.
+ * 
+ * @param <T> The type of the pooled objects.
+ */
+public class ObjectPool<T> {
+
+    private final Stripe[] stripes;
+
+    /**
+     * Constructs a new pool.
+     * 
+     * @param objectsPerStripe The number of free objects each stripe keeps. Objects returned to a
+     *        full stripe are left to the garbage collector.
+     */
+    public ObjectPool(int objectsPerStripe) {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        stripes = new Stripe[count * 2];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(objectsPerStripe);
+        }
+    }
+
+    /**
+     * Takes a free object from the pool.
+     * 
+     * @return A free object, or null if the pool has none and the caller has to create one.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        return (T) stripe().poll();
+    }
+
+    /**
+     * Returns an object to the pool. The object must not be used by the caller afterwards.
+     * 
+     * @param object The object, or null.
+     */
+    public void offer(T object) {
+        if (object != null) {
+            stripe().offer(object);
+        }
+    }
+
+    private Stripe stripe() {
+        long id = Thread.currentThread().getId();
+        return stripes[(int) ((id ^ (id >>> 16)) & (stripes.length - 1))];
+    }
+
+    /** The free list of one stripe, a bounded stack. */
+    private static class Stripe {
+        private final Object[] free;
+        private int count;
+
+        Stripe(int capacity) {
+            free = new Object[capacity];
+        }
+
+        synchronized Object poll() {
+            if (count == 0) {
+                return null;
+            }
+            Object object = free[--count];
+            free[count] = null;
+            return object;
+        }
+
+        synchronized void offer(Object object) {
+            if (count < free.length) {
+                free[count++] = object;
+            }
+        }
+    }
+
+}
@@ -1,10 +1,9 @@
 package com.netease.cloud.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 
+import com.netease.cloud.config.Constants;
 import com.netease.cloud.exception.ClientException;
 import com.netease.cloud.http.Request;
 
@@ -21,37 +20,43 @@ public class StringUtils {
      * @return the canonical string.
      */
     public static <T> String makeCanonicalString(Request request) {
-        StringBuilder buf = new StringBuilder();
+        StringBuilder buf = new StringBuilder(128);
         // HTTP-Verb
-        buf.append(request.getHttpMethod() + "\n");
+        buf.append(request.getHttpMethod()).append('\n');
         // Content-MD5
-        buf.append(request.getEncryptContent() + "\n");
+        buf.append(request.getEncryptContent()).append('\n');
         // Content-Type
-        buf.append(request.getHeaders().get("Content-Type") + "\n");
+        buf.append(request.getHeaders().get("Content-Type")).append('\n');
         // Date
-        buf.append(request.getHeaders().get("Date") + "\n");
+        buf.append(request.getHeaders().get("Date")).append('\n');
         // CanonicalizedHeaders
-        buf.append("\n");
+        buf.append('\n');
         // CanonicalizedResource
         buf.append(request.getResourcePath());
         return buf.toString();
     }
 
     /**
-     * Covert stream to string.
+     * Covert stream to string. The stream is decoded as UTF-8 and closed.
      * 
      * @param is Input stream needed to be converted.
      * @return string Converted string returned.
      */
     public String convertStreamToString(InputStream is) {
+        return convertStreamToString(is, -1);
+    }
 
-        BufferedReader reader = new BufferedReader(new InputStreamReader(is));
-        StringBuilder sb = new StringBuilder();
-        String line = null;
+    /**
+     * Covert stream to string. The content is read as bytes into a buffer sized from the content
+     * length, and decoded as UTF-8 once, with its line endings unchanged. The stream is closed.
+     * 
+     * @param is Input stream needed to be converted.
+     * @param contentLength The length of the content in bytes, or -1 if unknown.
+     * @return string Converted string returned.
+     */
+    public String convertStreamToString(InputStream is, long contentLength) {
         try {
-            while ((line = reader.readLine()) != null) {
-                sb.append(line + "\n");
-            }
+            return IOUtils.toString(is, contentLength, Constants.DEFAULT_ENCODING);
         } catch (IOException e) {
             throw new ClientException(e.getMessage(), e);
         } finally {
@@ -61,11 +66,5 @@ public class StringUtils {
                 throw new ClientException(e.getMessage(), e);
             }
         }
-        if (sb.length() > 0) {
-            return sb.substring(0, sb.length() - 1);
-        } else {
-            return "";
-        }
-
     }
 }
@@ -0,0 +1,81 @@
+package com.netease.cloud.util;
+
+/**
+ * Encodes strings as UTF-8 straight into caller supplied buffers, so that a request body can be
+ * hashed and sent from a pooled buffer without allocating its byte form.
+ * <p>
+ * Unpaired surrogates are encoded as '?', like {@link String#getBytes(String)} does.
+ */
+public class Utf8Utils {
+
+    /** Private constructor - static methods only. */
+    private Utf8Utils() {}
+
+    /**
+     * Returns the number of bytes of the UTF-8 form of the string.
+     * 
+     * @param s The string.
+     * @return The length of its UTF-8 form.
+     */
+    public static int encodedLength(CharSequence s) {
+        int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            } else if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                // Four bytes for the pair of chars
+                bytes += 2;
+                i++;
+            } else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c)) {
+                // Unpaired surrogate, replaced by a single '?'
+                continue;
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes the string as UTF-8 into the buffer.
+     * 
+     * @param s The string.
+     * @param buffer The buffer, at least {@link #encodedLength(CharSequence)} bytes long from the
+     *        offset.
+     * @param offset The offset of the first byte to write.
+     * @return The number of bytes written.
+     */
+    public static int encode(CharSequence s, byte[] buffer, int offset) {
+        int length = s.length();
+        int position = offset;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xc0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c)) {
+                buffer[position++] = (byte) '?';
+            } else {
+                buffer[position++] = (byte) (0xe0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return position - offset;
+    }
+
+}
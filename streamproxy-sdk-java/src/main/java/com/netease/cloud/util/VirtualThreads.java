@@ -0,0 +1,86 @@
+package com.netease.cloud.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Creates virtual threads (JDK 21 and later) for the blocking calls and consumer loops of the SDK,
+ * so that thousands of them don't each hold a platform thread.
+ * <p>
+ * The SDK targets Java 6, so this version reaches the virtual thread API by reflection and reports
+ * it as unsupported on older runtimes. The multi-release jar built with the multi-release profile
+ * replaces it on JDK 21 and later with a version calling the API directly.
+ */
+public final class VirtualThreads {
+
+    private static final Log log = LogFactory.getLog(VirtualThreads.class);
+
+    /** Thread.ofVirtual(), or null if virtual threads are not supported. */
+    private static final Method OF_VIRTUAL;
+    /** Thread.Builder.name(String, long) */
+    private static final Method NAME;
+    /** Thread.Builder.factory() */
+    private static final Method FACTORY;
+
+    /** Whether the fallback to platform threads has been logged. */
+    private static volatile boolean fallbackLogged;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+        } catch (Exception e) {
+            // Virtual threads are not supported by this runtime
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    /** Private constructor - static methods only. */
+    private VirtualThreads() {}
+
+    /**
+     * Returns whether the runtime supports virtual threads.
+     * 
+     * @return True if virtual threads are supported.
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Returns a factory of virtual threads named with the prefix followed by a counter starting at
+     * 1, or null if the runtime does not support virtual threads, in which case callers fall back to
+     * platform threads.
+     * 
+     * @param prefix The prefix of the thread names.
+     * @return A factory of virtual threads, or null.
+     */
+    public static ThreadFactory newThreadFactory(String prefix) {
+        if (OF_VIRTUAL == null) {
+            if (!fallbackLogged) {
+                fallbackLogged = true;
+                log.warn("Virtual threads require JDK 21 or later, using platform threads");
+            }
+            return null;
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 1L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (Exception e) {
+            log.warn("Unable to create virtual threads, using platform threads", e);
+            return null;
+        }
+    }
+
+}
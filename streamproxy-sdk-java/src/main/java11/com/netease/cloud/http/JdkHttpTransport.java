@@ -0,0 +1,256 @@
+package com.netease.cloud.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.netease.cloud.config.ClientConfiguration;
+import com.netease.cloud.exception.ClientException;
+
+/**
+ * A transport sending requests with the {@code java.net.http} client over HTTP/1.1.
+ * <p>
+ * The transport does not use HTTP/2: there {@code java.net.http} derives the {@code :authority}
+ * of a request from its URI, which names the proxy, and the Host header naming the subscription
+ * would conflict with it, so servers may reject the request or ignore the header (RFC 9113, section
+ * 8.3.1).
+ * <p>
+ * The class is only packaged under META-INF/versions/11 of the multi-release jar, and is created
+ * through {@link JdkHttpTransportFactory}.
+ * <p>
+ * Requests name their subscription in the Host header, which {@code java.net.http} only lets
+ * callers set with the {@code jdk.httpclient.allowRestrictedHeaders=host} system property. The
+ * property changes {@code java.net.http} for the whole JVM, so this class leaves it to the
+ * application, and fails to construct when it is missing.
+ * <p>
+ * Connections are managed by the JDK client, so the pool statistics report the requests in
+ * flight as leased and no limit.
+ */
+class JdkHttpTransport implements HttpTransport {
+
+    private static final String ALLOW_RESTRICTED_HEADERS = "jdk.httpclient.allowRestrictedHeaders";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final AtomicInteger transportCount = new AtomicInteger();
+
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final String userAgent;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentMap<String, AtomicInteger> inFlightPerEndpoint =
+            new ConcurrentHashMap<String, AtomicInteger>();
+
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs a new transport using the specified client configuration options.
+     * 
+     * @param config Client configuration options (ex: timeouts, user agent, etc).
+     * @throws ClientException If {@code java.net.http} does not allow the Host header.
+     */
+    JdkHttpTransport(ClientConfiguration config) {
+        checkHostHeaderAllowed();
+        final int id = transportCount.incrementAndGet();
+        this.executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "streamproxy-http-" + id + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        HttpClient.Builder builder =
+                HttpClient.newBuilder().executor(executor).version(HttpClient.Version.HTTP_1_1)
+                        .followRedirects(HttpClient.Redirect.NEVER);
+        if (config.getConnectionTimeout() > 0) {
+            builder.connectTimeout(Duration.ofMillis(config.getConnectionTimeout()));
+        }
+        this.httpClient = builder.build();
+        // java.net.http has no read timeout: the socket timeout bounds the wait for the response
+        this.timeout =
+                config.getSocketTimeout() > 0 ? Duration.ofMillis(config.getSocketTimeout()) : null;
+        this.userAgent = config.getUserAgent();
+    }
+
+    public HttpResponse execute(Request request) throws IOException {
+        if (shutdown) {
+            throw new ClientException("The transport has been shut down");
+        }
+        HttpRequest httpRequest = createHttpRequest(request);
+        final AtomicInteger endpointInFlight = getInFlight(request.getEndpoint());
+        inFlight.incrementAndGet();
+        endpointInFlight.incrementAndGet();
+        java.net.http.HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(httpRequest, BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            release(endpointInFlight);
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted =
+                    new InterruptedIOException("Interrupted waiting for the response");
+            interrupted.initCause(e);
+            throw interrupted;
+        } catch (IOException e) {
+            release(endpointInFlight);
+            throw e;
+        } catch (RuntimeException e) {
+            release(endpointInFlight);
+            throw e;
+        }
+
+        HttpResponse httpResponse = new HttpResponse(request);
+        httpResponse.setStatusCode(response.statusCode());
+        // java.net.http drops the reason phrase
+        httpResponse.setStatusText("");
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            List<String> values = header.getValue();
+            if (!values.isEmpty()) {
+                httpResponse.addHeader(header.getKey(), values.get(values.size() - 1));
+            }
+        }
+        // The stream is closed once the response has been handled, ending the request
+        httpResponse.setContentStream(new FilterInputStream(response.body()) {
+            private final AtomicBoolean closed = new AtomicBoolean();
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (closed.compareAndSet(false, true)) {
+                        release(endpointInFlight);
+                    }
+                }
+            }
+        });
+        return httpResponse;
+    }
+
+    public PoolStats getPoolStats() {
+        return new PoolStats(inFlight.get(), 0, 0, 0);
+    }
+
+    public PoolStats getPoolStats(URI endpoint) {
+        AtomicInteger endpointInFlight = inFlightPerEndpoint.get(endpointKey(endpoint));
+        return new PoolStats(endpointInFlight != null ? endpointInFlight.get() : 0, 0, 0, 0);
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        // The JDK client closes its connections once it is no longer referenced
+        executor.shutdownNow();
+    }
+
+    private HttpRequest createHttpRequest(Request request) {
+        URI endpoint = request.getEndpoint();
+        String uri = endpoint.toString();
+        if (request.getResourcePath() != null && request.getResourcePath().length() > 0) {
+            if (!request.getResourcePath().startsWith("/")) {
+                uri += "/";
+            }
+            uri += request.getResourcePath();
+        } else if (!uri.endsWith("/")) {
+            uri += "/";
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri));
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        HttpRequest.BodyPublisher body =
+                request.getContent() != null ? HttpRequest.BodyPublishers.ofByteArray(request
+                        .getContent().getBytes(StandardCharsets.UTF_8)) : HttpRequest.BodyPublishers
+                        .noBody();
+        switch (request.getHttpMethod()) {
+            case POST:
+            case PUT:
+                builder.method(request.getHttpMethod().name(), body);
+                break;
+            case GET:
+            case DELETE:
+            case HEAD:
+                builder.method(request.getHttpMethod().name(),
+                        HttpRequest.BodyPublishers.noBody());
+                break;
+            default:
+                throw new ClientException("Unknown HTTP method name: " + request.getHttpMethod());
+        }
+
+        boolean hasContentType = false;
+        boolean hasUserAgent = false;
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            String name = header.getKey();
+            // Set by the JDK client itself, which rejects them
+            if (name.equalsIgnoreCase(Headers.CONTENT_LENGTH) || name.equalsIgnoreCase("Connection")
+                    || name.equalsIgnoreCase("Expect") || name.equalsIgnoreCase("Upgrade")) {
+                continue;
+            }
+            hasContentType |= name.equalsIgnoreCase(Headers.CONTENT_TYPE);
+            hasUserAgent |= name.equalsIgnoreCase("User-Agent");
+            builder.header(name, header.getValue());
+        }
+        if (!hasContentType) {
+            builder.header(Headers.CONTENT_TYPE, DEFAULT_CONTENT_TYPE);
+        }
+        if (!hasUserAgent && userAgent != null) {
+            builder.header("User-Agent", userAgent);
+        }
+        return builder.build();
+    }
+
+    private void release(AtomicInteger endpointInFlight) {
+        endpointInFlight.decrementAndGet();
+        inFlight.decrementAndGet();
+    }
+
+    private AtomicInteger getInFlight(URI endpoint) {
+        String key = endpointKey(endpoint);
+        AtomicInteger count = inFlightPerEndpoint.get(key);
+        if (count == null) {
+            AtomicInteger created = new AtomicInteger();
+            count = inFlightPerEndpoint.putIfAbsent(key, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        return count;
+    }
+
+    private static String endpointKey(URI endpoint) {
+        return endpoint.getScheme() + "://" + endpoint.getAuthority();
+    }
+
+    /**
+     * Fails early if {@code java.net.http} does not allow the Host header.
+     */
+    private static void checkHostHeaderAllowed() {
+        try {
+            HttpRequest.newBuilder(URI.create("http://localhost/")).header("Host", "localhost")
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new ClientException("java.net.http does not allow the Host header: start the "
+                    + "JVM with -D" + ALLOW_RESTRICTED_HEADERS + "=host", e);
+        }
+    }
+
+}
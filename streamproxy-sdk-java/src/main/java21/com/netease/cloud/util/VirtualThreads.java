@@ -0,0 +1,37 @@
+package com.netease.cloud.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads for the blocking calls and consumer loops of the SDK, so that thousands
+ * of them don't each hold a platform thread.
+ * <p>
+ * This is the JDK 21 version of the class, packaged under META-INF/versions/21 of the
+ * multi-release jar, calling the virtual thread API directly.
+ */
+public final class VirtualThreads {
+
+    /** Private constructor - static methods only. */
+    private VirtualThreads() {}
+
+    /**
+     * Returns whether the runtime supports virtual threads.
+     * 
+     * @return True.
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Returns a factory of virtual threads named with the prefix followed by a counter starting at
+     * 1.
+     * 
+     * @param prefix The prefix of the thread names.
+     * @return A factory of virtual threads.
+     */
+    public static ThreadFactory newThreadFactory(String prefix) {
+        return Thread.ofVirtual().name(prefix, 1).factory();
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.netease.cloud.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.netease.cloud.config.ClientConfiguration;
+import com.netease.cloud.exception.ClientException;
+import com.netease.cloud.exception.ServiceException;
+import com.netease.cloud.model.FetchSpec;
+import com.netease.cloud.model.GetLogsBatchResult;
+import com.netease.cloud.model.GetLogsRequest;
+import com.netease.cloud.model.GetSubscriptionPositionRequest;
+import com.netease.cloud.model.LogBatch;
+import com.netease.cloud.model.LogRecordListener;
+import com.netease.cloud.retry.RetryPolicy;
+import com.netease.cloud.test.StreamProxyStubServer;
+
+/**
+ * Runs the client end to end against {@link StreamProxyStubServer}, which also checks the
+ * signature of every request.
+ */
+public class StreamProxyClientSmokeTest {
+
+    private static final String ACCESS_KEY = "accessKey";
+    private static final String SECRET_KEY = "secretKey";
+
+    private StreamProxyStubServer server;
+    private StreamProxyClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server =
+                new StreamProxyStubServer().withCredentials(ACCESS_KEY, SECRET_KEY)
+                        .withBacklog(500).withLogSize(128).start();
+        client = newClient(new ClientConfiguration());
+    }
+
+    @After
+    public void tearDown() {
+        client.shutdown();
+        server.stop();
+    }
+
+    @Test
+    public void decodesSubscriptionPositions() {
+        assertEquals("0", client.getSubscriptionPosition(
+                new GetSubscriptionPositionRequest("EARLIEST", "orders")).getPosition());
+        assertEquals("500", client.getSubscriptionPosition(
+                new GetSubscriptionPositionRequest("LATEST", "orders")).getPosition());
+        assertEquals(0, server.getSignatureFailureCount());
+    }
+
+    @Test
+    public void decodesPagesOfLogs() {
+        LogBatch page = client.getLogs(new GetLogsRequest("40", 10, "orders"));
+        assertEquals("orders", page.getSubscriptionName());
+        assertEquals("50", page.getNextPosition());
+        assertEquals(10, page.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(40 + i, offset(page.getLogs().get(i)));
+            assertTrue(page.getLogs().get(i).contains("\"subscription\":\"orders\""));
+        }
+        assertEquals(0, server.getSignatureFailureCount());
+    }
+
+    @Test
+    public void streamsLogsInOrder() {
+        final List<String> logs = new ArrayList<String>();
+        String next = client.getLogs(new GetLogsRequest("7", 25, "orders"),
+                new LogRecordListener() {
+                    public void onLog(String log) {
+                        logs.add(log);
+                    }
+                }).getPosition();
+        assertEquals("32", next);
+        assertEquals(25, logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            assertEquals(7 + i, offset(logs.get(i)));
+        }
+    }
+
+    @Test
+    public void rejectsWrongSignature() {
+        StreamProxyClient wrongKey = new StreamProxyClient(ACCESS_KEY, "wrong");
+        wrongKey.setEndpoint(server.getEndpoint());
+        try {
+            wrongKey.getLogs(new GetLogsRequest("0", 10, "orders"));
+            fail("The request should have been rejected");
+        } catch (ServiceException e) {
+            assertEquals(1, server.getSignatureFailureCount());
+        } finally {
+            wrongKey.shutdown();
+        }
+    }
+
+    @Test
+    public void failsOnServerErrorsWithoutRetryPolicy() {
+        server.withErrorRate(1);
+        try {
+            client.getLogs(new GetLogsRequest("0", 10, "orders"));
+            fail("The injected error should have failed the request");
+        } catch (ServiceException e) {
+            // expected
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void retriesServerErrorsAndThrottling() {
+        client.shutdown();
+        client =
+                newClient(new ClientConfiguration().withRetryPolicy(new RetryPolicy()
+                        .withMaxErrorRetry(20).withBaseDelay(1).withMaxBackoff(5)));
+        server.withErrorRate(0.3).withThrottleRate(0.2);
+        for (int i = 0; i < 50; i++) {
+            LogBatch page = client.getLogs(new GetLogsRequest(String.valueOf(i), 5, "orders"));
+            assertEquals(i, offset(page.getLogs().get(0)));
+        }
+        long injected = server.getInjectedErrorCount() + server.getInjectedThrottleCount();
+        assertTrue(injected > 0);
+        assertEquals(50 + injected, server.getRequestCount());
+        // Every retry was signed again and accepted
+        assertEquals(0, server.getSignatureFailureCount());
+    }
+
+    @Test
+    public void fetchesBatchesOfSubscriptions() {
+        List<FetchSpec> fetchSpecs = new ArrayList<FetchSpec>();
+        for (int i = 0; i < 6; i++) {
+            fetchSpecs.add(new FetchSpec(String.valueOf(i * 10), 3, "subscription-" + i));
+        }
+        fetchSpecs.add(new FetchSpec(null, 3, "no-position"));
+
+        GetLogsBatchResult result = client.getLogsBatch(fetchSpecs);
+        assertEquals(6, result.getResults().size());
+        for (int i = 0; i < 6; i++) {
+            LogBatch page = result.getResult("subscription-" + i);
+            assertEquals(3, page.size());
+            assertEquals(i * 10, offset(page.getLogs().get(0)));
+            assertEquals(String.valueOf(i * 10 + 3), page.getNextPosition());
+        }
+        assertTrue(result.getError("no-position") instanceof ClientException);
+        assertNull(result.getResult("no-position"));
+    }
+
+    @Test
+    public void rejectsInvalidBatches() {
+        FetchSpec fetchSpec = new FetchSpec("0", 3, "orders");
+        try {
+            client.getLogsBatch(Arrays.asList(fetchSpec, null));
+            fail("A null fetch spec should have been rejected");
+        } catch (ClientException e) {
+            // expected
+        }
+        try {
+            client.getLogsBatch(Arrays.asList(fetchSpec, new FetchSpec("5", 3, "orders")));
+            fail("A repeated subscription should have been rejected");
+        } catch (ClientException e) {
+            // expected
+        }
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void fetchesBatchesFromAsyncHandlers() throws Exception {
+        client.shutdown();
+        client = newClient(new ClientConfiguration().withAsyncThreadPoolSize(2));
+        final List<FetchSpec> fetchSpecs = new ArrayList<FetchSpec>();
+        for (int i = 0; i < 4; i++) {
+            fetchSpecs.add(new FetchSpec("0", 2, "subscription-" + i));
+        }
+        // Every pool thread runs a batch: fetching it on the same pool would deadlock
+        final CountDownLatch done = new CountDownLatch(2);
+        final AtomicInteger fetched = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            client.getLogsAsync(new GetLogsRequest("0", 1, "orders"),
+                    new AsyncHandler<GetLogsRequest, LogBatch>() {
+                        public void onSuccess(GetLogsRequest request, LogBatch result) {
+                            fetched.addAndGet(client.getLogsBatch(fetchSpecs).getResults()
+                                    .size());
+                            done.countDown();
+                        }
+
+                        public void onError(Exception exception) {
+                            done.countDown();
+                        }
+                    });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(8, fetched.get());
+    }
+
+    @Test
+    public void completesAsyncRequests() throws Exception {
+        final AtomicInteger succeeded = new AtomicInteger();
+        final CountDownLatch handled = new CountDownLatch(20);
+        List<Future<LogBatch>> futures = new ArrayList<Future<LogBatch>>();
+        for (int i = 0; i < 20; i++) {
+            final GetLogsRequest request = new GetLogsRequest(String.valueOf(i), 4, "orders");
+            futures.add(client.getLogsAsync(request,
+                    new AsyncHandler<GetLogsRequest, LogBatch>() {
+                        public void onSuccess(GetLogsRequest original, LogBatch result) {
+                            assertSame(request, original);
+                            succeeded.incrementAndGet();
+                            handled.countDown();
+                        }
+
+                        public void onError(Exception exception) {
+                            handled.countDown();
+                        }
+                    }));
+        }
+        for (int i = 0; i < 20; i++) {
+            LogBatch page = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(i, offset(page.getLogs().get(0)));
+        }
+        assertTrue(handled.await(10, TimeUnit.SECONDS));
+        assertEquals(20, succeeded.get());
+
+        assertEquals("500", client.getSubscriptionPositionAsync(
+                new GetSubscriptionPositionRequest("LATEST", "orders")).get(10, TimeUnit.SECONDS)
+                .getPosition());
+    }
+
+    @Test
+    public void reportsAsyncFailures() throws Exception {
+        server.withErrorRate(1);
+        final AtomicInteger errors = new AtomicInteger();
+        Future<LogBatch> future = client.getLogsAsync(new GetLogsRequest("0", 4, "orders"),
+                new AsyncHandler<GetLogsRequest, LogBatch>() {
+                    public void onSuccess(GetLogsRequest request, LogBatch result) {}
+
+                    public void onError(Exception exception) {
+                        errors.incrementAndGet();
+                    }
+                });
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            fail("The injected error should have failed the request");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ServiceException);
+        }
+        assertEquals(1, errors.get());
+        assertFalse(future.isCancelled());
+    }
+
+    private StreamProxyClient newClient(ClientConfiguration config) {
+        StreamProxyClient newClient = new StreamProxyClient(ACCESS_KEY, SECRET_KEY, config);
+        newClient.setEndpoint(server.getEndpoint());
+        return newClient;
+    }
+
+    /** The offset of a synthetic log of the stub server. */
+    private static long offset(String log) {
+        int start = log.indexOf("\"offset\":") + "\"offset\":".length();
+        int end = log.indexOf(',', start);
+        return Long.parseLong(log.substring(start, end));
+    }
+
+}
@@ -0,0 +1,296 @@
+package com.netease.cloud.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.netease.cloud.exception.ClientException;
+
+public class FileCheckpointStoreTest {
+
+    private File directory;
+    private File file;
+    private File compactFile;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("checkpoints", "");
+        assertTrue(directory.delete() && directory.mkdir());
+        file = new File(directory, "positions.log");
+        compactFile = new File(directory, "positions.log.compact");
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+    }
+
+    @Test
+    public void reopenedStoreHasLatestPositions() {
+        FileCheckpointStore store = new FileCheckpointStore(file, 4096, 0);
+        store.checkpoint("a", "1");
+        store.checkpoint("b", "10");
+        store.checkpoint("a", "2");
+        store.close();
+
+        store = new FileCheckpointStore(file, 4096, 0);
+        assertEquals("2", store.getCheckpoint("a"));
+        assertEquals("10", store.getCheckpoint("b"));
+        assertNull(store.getCheckpoint("c"));
+        store.close();
+    }
+
+    @Test
+    public void tornTailRecordIsDiscarded() throws IOException {
+        writeRecords("1", "2");
+        // The second record's header made it to disk but its payload did not
+        zero(recordSize("1") + 8, recordSize("2") - 8);
+
+        FileCheckpointStore store = new FileCheckpointStore(file, 4096, 0);
+        assertEquals("1", store.getCheckpoint("sub"));
+        store.close();
+    }
+
+    @Test
+    public void truncatedTailRecordIsDiscarded() throws IOException {
+        writeRecords("1", "2");
+        // Only the first bytes of the second record's length made it to disk
+        zero(recordSize("1") + 2, recordSize("2") - 2);
+
+        FileCheckpointStore store = new FileCheckpointStore(file, 4096, 0);
+        assertEquals("1", store.getCheckpoint("sub"));
+        store.close();
+    }
+
+    @Test
+    public void corruptRecordEndsReplay() throws IOException {
+        writeRecords("1", "2", "3");
+        // Flip the position byte of the second record so that its CRC no longer matches
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            long offset = recordSize("1") + recordSize("2") - 1;
+            raf.seek(offset);
+            raf.write('9');
+        } finally {
+            raf.close();
+        }
+
+        FileCheckpointStore store = new FileCheckpointStore(file, 4096, 0);
+        assertEquals("1", store.getCheckpoint("sub"));
+        store.close();
+    }
+
+    @Test
+    public void checkpointsAfterRecoveryOverwriteDiscardedTail() throws IOException {
+        writeRecords("1", "2");
+        zero(recordSize("1") + 8, recordSize("2") - 8);
+
+        FileCheckpointStore store = new FileCheckpointStore(file, 4096, 0);
+        store.checkpoint("sub", "33");
+        store.close();
+
+        store = new FileCheckpointStore(file, 4096, 0);
+        assertEquals("33", store.getCheckpoint("sub"));
+        store.close();
+    }
+
+    @Test
+    public void leftoverCompactionNextToLogIsDiscarded() throws IOException {
+        writeRecords("1");
+        // A crash before the rename leaves a possibly incomplete compacted file next to the log
+        RandomAccessFile raf = new RandomAccessFile(compactFile, "rw");
+        try {
+            raf.write(new byte[] {0, 0, 0, 42, 1, 2, 3});
+        } finally {
+            raf.close();
+        }
+
+        FileCheckpointStore store = new FileCheckpointStore(file, 4096, 0);
+        assertEquals("1", store.getCheckpoint("sub"));
+        assertFalse(compactFile.exists());
+        store.close();
+    }
+
+    @Test
+    public void compactionWithoutLogBecomesLog() throws IOException {
+        writeRecords("1", "2");
+        assertTrue(file.renameTo(compactFile));
+
+        FileCheckpointStore store = new FileCheckpointStore(file, 4096, 0);
+        assertEquals("2", store.getCheckpoint("sub"));
+        assertFalse(compactFile.exists());
+        store.close();
+    }
+
+    @Test
+    public void fullLogIsCompactedAndGrown() {
+        FileCheckpointStore store = new FileCheckpointStore(file, 64, 0);
+        for (int i = 0; i < 1000; i++) {
+            store.checkpoint("subscription-" + (i % 5), "position-" + i);
+        }
+        store.close();
+        assertFalse(compactFile.exists());
+        assertTrue(file.length() > 64);
+
+        store = new FileCheckpointStore(file, 64, 0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("position-" + (995 + i), store.getCheckpoint("subscription-" + i));
+        }
+        store.close();
+    }
+
+    @Test
+    public void failedCompactionLeavesStoreUsable() throws IOException {
+        int capacity = recordSize("1") * 2;
+        FileCheckpointStore store = new FileCheckpointStore(file, capacity, 0);
+        store.checkpoint("sub", "1");
+        store.checkpoint("sub", "2");
+
+        // A non-empty directory in the way of the compacted file makes the compaction fail
+        assertTrue(compactFile.mkdir());
+        File blocker = new File(compactFile, "blocker");
+        assertTrue(blocker.createNewFile());
+        try {
+            store.checkpoint("sub", "3");
+            fail("Compaction should have failed");
+        } catch (ClientException e) {
+            // expected
+        }
+        assertEquals("2", store.getCheckpoint("sub"));
+
+        assertTrue(blocker.delete() && compactFile.delete());
+        store.checkpoint("sub", "4");
+        assertEquals("4", store.getCheckpoint("sub"));
+        store.close();
+
+        store = new FileCheckpointStore(file, capacity, 0);
+        assertEquals("4", store.getCheckpoint("sub"));
+        store.close();
+    }
+
+    @Test
+    public void backgroundFlushBatchesCheckpoints() throws InterruptedException {
+        long interval = 50;
+        CountingStore store = new CountingStore(file, interval);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 2000; i++) {
+            store.checkpoint("sub", String.valueOf(i));
+        }
+        long deadline = System.currentTimeMillis() + 2000;
+        while (store.forces.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        int forces = store.forces.get();
+        assertTrue("No background flush", forces > 0);
+        assertTrue(forces + " flushes in " + elapsed + " ms", forces <= elapsed / interval + 1);
+
+        // Nothing was appended since, so there is nothing to force
+        Thread.sleep(interval * 4);
+        assertEquals(forces, store.forces.get());
+
+        store.checkpoint("sub", "last");
+        store.flush();
+        assertEquals(forces + 1, store.forces.get());
+        store.close();
+        assertEquals(forces + 1, store.forces.get());
+    }
+
+    @Test
+    public void closeForcesPendingCheckpoints() {
+        CountingStore store = new CountingStore(file, 0);
+        store.checkpoint("sub", "1");
+        store.checkpoint("sub", "2");
+        assertEquals(0, store.forces.get());
+        store.close();
+        assertEquals(1, store.forces.get());
+    }
+
+    @Test
+    public void failedFlushIsRetried() {
+        CountingStore store = new CountingStore(file, 0);
+        store.checkpoint("sub", "1");
+        store.failures.set(1);
+        try {
+            store.flush();
+            fail("The flush should have failed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, store.forces.get());
+
+        // The records are still dirty, so the next flush forces them
+        store.flush();
+        assertEquals(1, store.forces.get());
+        store.flush();
+        assertEquals(1, store.forces.get());
+        store.close();
+        assertEquals(1, store.forces.get());
+    }
+
+    /** Counts the mappings forced to disk, failing the first forces if asked to. */
+    private static class CountingStore extends FileCheckpointStore {
+        private final AtomicInteger forces = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        CountingStore(File file, long flushInterval) {
+            super(file, 1024 * 1024, flushInterval);
+        }
+
+        @Override
+        void force(MappedByteBuffer toForce) {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Injected force failure");
+            }
+            forces.incrementAndGet();
+            super.force(toForce);
+        }
+    }
+
+    /** Writes one record per position for subscription "sub". */
+    private void writeRecords(String... positions) {
+        FileCheckpointStore store = new FileCheckpointStore(file, 4096, 0);
+        for (String position : positions) {
+            store.checkpoint("sub", position);
+        }
+        store.close();
+    }
+
+    /** Size of the record of subscription "sub" at the specified position. */
+    private static int recordSize(String position) {
+        return 8 + 2 + "sub".length() + 2 + position.length();
+    }
+
+    private void zero(long offset, int length) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(offset);
+            raf.write(new byte[length]);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        f.delete();
+    }
+
+}
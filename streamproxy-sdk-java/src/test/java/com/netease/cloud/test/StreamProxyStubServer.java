@@ -0,0 +1,418 @@
+package com.netease.cloud.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.codec.binary.Base64;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import com.netease.cloud.config.Constants;
+import com.netease.cloud.util.IOUtils;
+import com.netease.cloud.util.Md5Utils;
+import com.netease.cloud.util.json.JSONException;
+import com.netease.cloud.util.json.JSONObject;
+
+/**
+ * An in-process streamproxy endpoint for load and integration testing, serving
+ * {@code /get_subscription_position} and {@code /get_logs} on the loopback interface.
+ * <p>
+ * Every subscription, named by the Host header like the real service, is an endless stream of
+ * synthetic logs. Positions are log offsets: {@code EARLIEST} is 0 and {@code LATEST} is the
+ * configured backlog. Latency, server errors (500) and throttling (429) can be injected, and the
+ * {@code Authorization: LOG} signature of every request is checked when credentials are set.
+ * <p>
+ * Point a client at the stub with
+ * {@code client.setEndpoint(server.getEndpoint())}.
+ */
+public class StreamProxyStubServer {
+
+    /** The suffix of the Host header following the subscription name. */
+    public static final String HOST_SUFFIX = ".c.163.com";
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+    private static final AtomicInteger serverCount = new AtomicInteger();
+
+    static {
+        // Send responses without waiting for the client's delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Random random = new Random();
+
+    // Settings may be changed while the server is running
+    private volatile String accessKey;
+    private volatile String secretKey;
+    private volatile long latency;
+    private volatile long latencyJitter;
+    private volatile double errorRate;
+    private volatile double throttleRate;
+    private volatile long backlog = 1000000;
+    private volatile String padding = padding(256);
+    private volatile int defaultLimit = 100;
+    private int threads = 16;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong logsServed = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedThrottles = new AtomicLong();
+    private final AtomicLong signatureFailures = new AtomicLong();
+
+    /**
+     * Starts serving on an ephemeral port of the loopback interface.
+     * 
+     * @return This server.
+     * @throws IOException If the server can't be started.
+     */
+    public synchronized StreamProxyStubServer start() throws IOException {
+        if (server != null) {
+            return this;
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                StreamProxyStubServer.this.handle(exchange);
+            }
+        });
+        final int id = serverCount.incrementAndGet();
+        executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "streamproxy-stub-" + id + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+        return this;
+    }
+
+    /**
+     * Stops serving and releases the server threads.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            executor = null;
+        }
+    }
+
+    /**
+     * Returns the endpoint of the running server.
+     * 
+     * @return The endpoint, including the protocol.
+     */
+    public synchronized String getEndpoint() {
+        if (server == null) {
+            throw new IllegalStateException("The stub server is not running");
+        }
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Checks the signature of every request against the specified credentials. Requests with a
+     * missing or wrong signature are answered with 403.
+     * 
+     * @param accessKey The access key, or null to accept every request.
+     * @param secretKey The secret key.
+     * @return This server.
+     */
+    public StreamProxyStubServer withCredentials(String accessKey, String secretKey) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        return this;
+    }
+
+    /**
+     * Delays every response.
+     * 
+     * @param latency The minimum delay (in milliseconds).
+     * @param jitter The maximum random delay (in milliseconds) added to the minimum delay.
+     * @return This server.
+     */
+    public StreamProxyStubServer withLatency(long latency, long jitter) {
+        this.latency = latency;
+        this.latencyJitter = jitter;
+        return this;
+    }
+
+    /**
+     * Answers a fraction of the requests with 500 Internal Server Error.
+     * 
+     * @param errorRate The fraction of requests failing, between 0 and 1.
+     * @return This server.
+     */
+    public StreamProxyStubServer withErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Answers a fraction of the requests with 429 Too Many Requests.
+     * 
+     * @param throttleRate The fraction of requests throttled, between 0 and 1.
+     * @return This server.
+     */
+    public StreamProxyStubServer withThrottleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+        return this;
+    }
+
+    /**
+     * Sets the number of logs available in every subscription when it is first read, which is
+     * the LATEST position.
+     * 
+     * @param backlog The number of logs before the LATEST position.
+     * @return This server.
+     */
+    public StreamProxyStubServer withBacklog(long backlog) {
+        this.backlog = backlog;
+        return this;
+    }
+
+    /**
+     * Sets the approximate size of every synthetic log.
+     * 
+     * @param logSize The size of a log in bytes.
+     * @return This server.
+     */
+    public StreamProxyStubServer withLogSize(int logSize) {
+        this.padding = padding(logSize);
+        return this;
+    }
+
+    /**
+     * Sets the number of logs returned when a request doesn't specify a limit.
+     * 
+     * @param defaultLimit The number of logs of a page.
+     * @return This server.
+     */
+    public StreamProxyStubServer withDefaultLimit(int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads handling requests. Only effective before the server is started.
+     * 
+     * @param threads The number of threads.
+     * @return This server.
+     */
+    public StreamProxyStubServer withThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    /** Returns the number of requests received. */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /** Returns the number of logs returned by get_logs requests. */
+    public long getLogsServed() {
+        return logsServed.get();
+    }
+
+    /** Returns the number of requests answered with an injected 500. */
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    /** Returns the number of requests answered with an injected 429. */
+    public long getInjectedThrottleCount() {
+        return injectedThrottles.get();
+    }
+
+    /** Returns the number of requests rejected for a missing or wrong signature. */
+    public long getSignatureFailureCount() {
+        return signatureFailures.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        byte[] body = IOUtils.toByteArray(exchange.getRequestBody(), -1);
+        String path = exchange.getRequestURI().getPath();
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Method not allowed"));
+                return;
+            }
+            if (!verifySignature(exchange, path, body)) {
+                signatureFailures.incrementAndGet();
+                respond(exchange, 403, error("Signature does not match"));
+                return;
+            }
+            String host = exchange.getRequestHeaders().getFirst("Host");
+            if (host == null || !host.endsWith(HOST_SUFFIX)) {
+                respond(exchange, 400, error("No subscription in the Host header"));
+                return;
+            }
+            String subscription = host.substring(0, host.length() - HOST_SUFFIX.length());
+
+            pause();
+            double chance = random.nextDouble();
+            if (chance < throttleRate) {
+                injectedThrottles.incrementAndGet();
+                respond(exchange, 429, error("Too many requests"));
+                return;
+            }
+            if (chance < throttleRate + errorRate) {
+                injectedErrors.incrementAndGet();
+                respond(exchange, 500, error("Injected error"));
+                return;
+            }
+
+            JSONObject request = new JSONObject(new String(body, Constants.DEFAULT_ENCODING));
+            if ("/get_subscription_position".equals(path)) {
+                respond(exchange, 200, getSubscriptionPosition(request));
+            } else if ("/get_logs".equals(path)) {
+                respond(exchange, 200, getLogs(subscription, request));
+            } else {
+                respond(exchange, 404, error("Unknown resource " + path));
+            }
+        } catch (JSONException e) {
+            respond(exchange, 400, error("Malformed request: " + e.getMessage()));
+        } catch (NumberFormatException e) {
+            respond(exchange, 400, error("Malformed position: " + e.getMessage()));
+        }
+    }
+
+    private byte[] getSubscriptionPosition(JSONObject request) throws IOException, JSONException {
+        String positionType = request.getString("position_type");
+        long position;
+        if ("EARLIEST".equalsIgnoreCase(positionType)) {
+            position = 0;
+        } else if ("LATEST".equalsIgnoreCase(positionType)) {
+            position = backlog;
+        } else {
+            throw new JSONException("Unknown position type " + positionType);
+        }
+        return new JSONObject().put("position", String.valueOf(position)).toString()
+                .getBytes(Constants.DEFAULT_ENCODING);
+    }
+
+    private byte[] getLogs(String subscription, JSONObject request) throws IOException,
+            JSONException {
+        long position = Long.parseLong(request.getString("position"));
+        long limit = request.optLong("limit", 0);
+        if (limit <= 0) {
+            limit = defaultLimit;
+        }
+        ByteArrayOutputStream out =
+                new ByteArrayOutputStream((int) Math.min(limit * (padding.length() + 96), 1 << 24));
+        JsonGenerator generator = jsonFactory.createJsonGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("subscription_logs");
+        for (long offset = position; offset < position + limit; offset++) {
+            generator.writeString("{\"subscription\":\"" + subscription + "\",\"offset\":"
+                    + offset + ",\"timestamp\":" + System.currentTimeMillis() + ",\"message\":\""
+                    + padding + "\"}");
+        }
+        generator.writeEndArray();
+        generator.writeStringField("position", String.valueOf(position + limit));
+        generator.writeEndObject();
+        generator.close();
+        logsServed.addAndGet(limit);
+        return out.toByteArray();
+    }
+
+    /**
+     * Checks the Authorization header: "LOG accessKey:signature", where the signature is the
+     * Base64 HmacSHA256 of the canonical string of the request.
+     */
+    private boolean verifySignature(HttpExchange exchange, String path, byte[] body)
+            throws IOException {
+        if (accessKey == null) {
+            return true;
+        }
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        String prefix = "LOG " + accessKey + ":";
+        if (authorization == null || !authorization.startsWith(prefix)) {
+            return false;
+        }
+        try {
+            String canonicalString =
+                    exchange.getRequestMethod() + "\n"
+                            + Md5Utils.computeMD5Hex(body, 0, body.length) + "\n"
+                            + exchange.getRequestHeaders().getFirst("Content-Type") + "\n"
+                            + exchange.getRequestHeaders().getFirst("Date") + "\n" + "\n" + path;
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secretKey.getBytes(Constants.DEFAULT_ENCODING),
+                    "HmacSHA256"));
+            String expected =
+                    new String(Base64.encodeBase64(mac.doFinal(canonicalString
+                            .getBytes(Constants.DEFAULT_ENCODING))));
+            return expected.equals(authorization.substring(prefix.length()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String padding(int logSize) {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < logSize - 72; i++) {
+            padding.append((char) ('a' + i % 26));
+        }
+        return padding.toString();
+    }
+
+    private void pause() {
+        long delay = latency;
+        if (latencyJitter > 0) {
+            delay += (long) (random.nextDouble() * latencyJitter);
+        }
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] error(String message) throws IOException {
+        try {
+            return new JSONObject().put("message", message).toString()
+                    .getBytes(Constants.DEFAULT_ENCODING);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.netease.cloud.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DateUtilsTest {
+
+    private static final int THREADS = 8;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void formatsRfc1123DatesLikeReference() {
+        SimpleDateFormat reference = newReferenceFormat();
+        DateUtils dateUtils = new DateUtils();
+        long[] times = {0, 999, 1000, -1, -999, -1000, -1001, 1262304000000L, 1262303999999L,
+                1262304000999L};
+        for (long time : times) {
+            assertEquals(String.valueOf(time), reference.format(new Date(time)),
+                    dateUtils.formatRfc1123Date(time));
+            assertEquals(String.valueOf(time), reference.format(new Date(time)),
+                    dateUtils.formatRfc1123Date(new Date(time)));
+        }
+    }
+
+    @Test
+    public void concurrentCallersAcrossSecondBoundariesGetCorrectDates() throws Exception {
+        final long base = 1262303990000L;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for (int t = 0; t < THREADS; t++) {
+            final long seed = t;
+            results.add(executor.submit(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    SimpleDateFormat reference = newReferenceFormat();
+                    DateUtils dateUtils = new DateUtils();
+                    Random random = new Random(seed);
+                    start.await();
+                    int checked = 0;
+                    // Mostly moves forward a few milliseconds at a time, crossing a second every
+                    // few calls, and sometimes jumps back to an older second
+                    long time = base;
+                    for (int i = 0; i < 50000; i++) {
+                        time += random.nextInt(200);
+                        long formatted = random.nextInt(10) == 0
+                                ? time - random.nextInt(5000) : time;
+                        String expected = reference.format(new Date(formatted));
+                        assertEquals(String.valueOf(formatted), expected,
+                                dateUtils.formatRfc1123Date(formatted));
+                        checked++;
+                        if (time > base + 20000) {
+                            time = base;
+                        }
+                    }
+                    return checked;
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> result : results) {
+            assertEquals(50000, result.get().intValue());
+        }
+    }
+
+    @Test
+    public void concurrentCallersFormattingTheClockGetCorrectDates() throws Exception {
+        final long end = System.currentTimeMillis() + 2500;
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(new Callable<Integer>() {
+                public Integer call() {
+                    SimpleDateFormat reference = newReferenceFormat();
+                    DateUtils dateUtils = new DateUtils();
+                    int checked = 0;
+                    long now;
+                    while ((now = System.currentTimeMillis()) < end) {
+                        assertEquals(String.valueOf(now), reference.format(new Date(now)),
+                                dateUtils.formatRfc1123Date(now));
+                        checked++;
+                    }
+                    return checked;
+                }
+            }));
+        }
+        for (Future<Integer> result : results) {
+            result.get();
+        }
+    }
+
+    /** Formats RFC 1123 dates in the same (UTC+8) time zone as DateUtils. */
+    private static SimpleDateFormat newReferenceFormat() {
+        SimpleDateFormat format =
+                new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT+08:00"));
+        return format;
+    }
+
+}